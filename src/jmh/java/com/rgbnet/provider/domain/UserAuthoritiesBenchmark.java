@@ -0,0 +1,62 @@
+package com.rgbnet.provider.domain;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// getAuthorities monta a lista a cada chamada; compara a entidade com o snapshot imutável usado no login
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserAuthoritiesBenchmark {
+
+    @Param({"1", "5"})
+    public int roleCount;
+
+    private User user;
+    private UserSnapshot snapshot;
+
+    @Setup
+    public void setUp() {
+        Set<String> roles = new HashSet<>();
+        for (int i = 0; i < roleCount; i++) {
+            roles.add(i == 0 ? "USER" : "ROLE" + i);
+        }
+        user = User.builder()
+                .username("benchmark")
+                .password("encoded_password")
+                .fullName("Benchmark User")
+                .email("benchmark@example.com")
+                .roles(roles)
+                .build();
+        user.setVersion(0L);
+        snapshot = UserSnapshot.from(user);
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> entityAuthorities() {
+        return user.getAuthorities();
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> snapshotAuthorities() {
+        return snapshot.getAuthorities();
+    }
+}
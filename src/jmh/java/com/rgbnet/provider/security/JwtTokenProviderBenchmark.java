@@ -0,0 +1,75 @@
+package com.rgbnet.provider.security;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Custo por requisição do JWT: emissão no login e, no filtro, parse + validação.
+// verifiedCacheSize=0 mede a verificação de assinatura ES256 completa; 10000 mede o caminho com cache.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKeyForJWTNeedsToBeLongEnoughToSatisfyHmacSha256Requirements";
+
+    @Param({"0", "10000"})
+    public long verifiedCacheSize;
+
+    @Param({"false", "true"})
+    public boolean statelessAuthorization;
+
+    private JwtTokenProvider jwtTokenProvider;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtKeyRing keyRing = new JwtKeyRing(new SimpleMeterRegistry(), "", Duration.ZERO, true);
+        jwtTokenProvider = new JwtTokenProvider(keyRing, SECRET, true, 3_600_000, verifiedCacheSize,
+                statelessAuthorization, Duration.ofMinutes(5));
+        userDetails = new User("benchmark", "password", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        token = jwtTokenProvider.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtTokenProvider.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtTokenProvider.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtTokenProvider.isTokenValid(token, userDetails);
+    }
+
+    @Benchmark
+    public boolean verifyAndValidate() {
+        Claims claims = jwtTokenProvider.verify(token);
+        return jwtTokenProvider.isTokenValid(claims, userDetails);
+    }
+}
@@ -0,0 +1,53 @@
+package com.rgbnet.provider.service;
+
+import com.rgbnet.provider.domain.User;
+import com.rgbnet.provider.dto.UserDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserDtoConversionBenchmark {
+
+    private UserService userService;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        // convertToDTO não usa nenhuma dependência do serviço
+        userService = new UserService(null, null, null, null, null, null, null);
+        user = User.builder()
+                .username("benchmark")
+                .password("encoded_password")
+                .fullName("Benchmark User")
+                .email("benchmark@example.com")
+                .phone("11999999999")
+                .roles(Set.of("USER", "ADMIN"))
+                .build();
+        user.setId(UUID.randomUUID());
+        user.setCreatedAt(LocalDateTime.now());
+        user.setUpdatedAt(LocalDateTime.now());
+    }
+
+    @Benchmark
+    public UserDTO convertToDTO() {
+        return userService.convertToDTO(user);
+    }
+}
@@ -0,0 +1,201 @@
+package com.rgbnet.provider.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.rgbnet.provider.ProviderApplication;
+import com.rgbnet.provider.dto.UserImportReport;
+import com.rgbnet.provider.service.UserImportService;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Sobe a aplicação com o perfil h2 em porta aleatória, semeia os usuários do cenário pela importação NDJSON,
+// obtém tokens pelo /auth/login e roda o cenário em modelo aberto. O resultado vai para
+// <diretório de saída>/<cenário>.json, no mesmo formato entre execuções, para comparar commits.
+// Uso: LoadTestRunner <cenário.json> <diretório de saída>
+public final class LoadTestRunner {
+
+    private static final String PASSWORD = "loadtest-password";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Uso: LoadTestRunner <cenário.json> <diretório de saída>");
+        }
+        Scenario scenario = OBJECT_MAPPER.readValue(Path.of(args[0]).toFile(), Scenario.class);
+        Path outputDirectory = Path.of(args[1]);
+
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.jpa.show-sql", false);
+        // Todo o tráfego sai de um único IP; o cenário pode religar o limitador para medir o custo dele
+        properties.put("security.login-rate-limit.enabled", false);
+        properties.putAll(scenario.properties());
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ProviderApplication.class)
+                .profiles("h2")
+                .properties(properties)
+                .run();
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String baseUrl = "http://localhost:" + port + context.getEnvironment()
+                    .getProperty("server.servlet.context-path", "");
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+
+            List<OpenModelDriver.SeededUser> users = seed(context.getBean(UserImportService.class), scenario);
+            List<String> tokens = login(httpClient, baseUrl, users.subList(0, scenario.tokens()), executor);
+            OpenModelDriver driver = new OpenModelDriver(httpClient, baseUrl, users, tokens);
+
+            if (scenario.warmupSeconds() > 0) {
+                System.out.printf("Aquecimento: %d s%n", scenario.warmupSeconds());
+                driver.run(scenario.steps(), Duration.ofSeconds(scenario.warmupSeconds()));
+            }
+            System.out.printf("Medição: %d s%n", scenario.durationSeconds());
+            List<OpenModelDriver.StepResult> results =
+                    driver.run(scenario.steps(), Duration.ofSeconds(scenario.durationSeconds()));
+
+            Path output = write(scenario, results, outputDirectory);
+            print(results);
+            System.out.println("Resultado gravado em " + output.toAbsolutePath());
+        }
+    }
+
+    private static List<OpenModelDriver.SeededUser> seed(UserImportService importService, Scenario scenario)
+            throws IOException {
+        List<OpenModelDriver.SeededUser> users = new ArrayList<>(scenario.users());
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < scenario.users(); i++) {
+            OpenModelDriver.SeededUser user = new OpenModelDriver.SeededUser(
+                    "loadtest" + i, "loadtest" + i + "@example.com", PASSWORD);
+            users.add(user);
+            ndjson.append(OBJECT_MAPPER.writeValueAsString(Map.of(
+                    "username", user.username(),
+                    "password", user.password(),
+                    "fullName", "Load Test " + i,
+                    "email", user.email(),
+                    "roles", scenario.roles()))).append('\n');
+        }
+
+        UserImportReport report = importService.importUsers(
+                new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)),
+                UserImportService.Format.NDJSON);
+        if (report.getFailed() > 0) {
+            throw new IllegalStateException("Falha ao semear usuários: " + report.getErrors());
+        }
+        System.out.printf("%d usuários semeados em %d ms%n", report.getImported(), report.getDurationMillis());
+        return users;
+    }
+
+    private static List<String> login(HttpClient httpClient, String baseUrl, List<OpenModelDriver.SeededUser> users,
+                                      ExecutorService executor) throws Exception {
+        List<Future<String>> futures = new ArrayList<>(users.size());
+        for (OpenModelDriver.SeededUser user : users) {
+            futures.add(executor.submit(() -> {
+                String body = OBJECT_MAPPER.writeValueAsString(
+                        Map.of("username", user.username(), "password", user.password()));
+                HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 200) {
+                    throw new IllegalStateException(
+                            "Login de " + user.username() + " falhou com status " + response.statusCode());
+                }
+                JsonNode token = OBJECT_MAPPER.readTree(response.body()).get("token");
+                return token.asText();
+            }));
+        }
+
+        List<String> tokens = new ArrayList<>(futures.size());
+        for (Future<String> future : futures) {
+            tokens.add(future.get());
+        }
+        return tokens;
+    }
+
+    private static Path write(Scenario scenario, List<OpenModelDriver.StepResult> results, Path outputDirectory)
+            throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("scenario", scenario.name());
+        report.put("revision", System.getProperty("loadtest.revision", "unknown"));
+        report.put("timestamp", Instant.now().toString());
+        report.put("javaVersion", Runtime.version().toString());
+        report.put("users", scenario.users());
+        report.put("durationSeconds", scenario.durationSeconds());
+        report.put("properties", scenario.properties());
+        report.put("steps", results.stream().map(LoadTestRunner::toMap).toList());
+
+        Files.createDirectories(outputDirectory);
+        Path output = outputDirectory.resolve(scenario.name() + ".json");
+        OBJECT_MAPPER.writeValue(output.toFile(), report);
+        return output;
+    }
+
+    private static Map<String, Object> toMap(OpenModelDriver.StepResult result) {
+        Histogram latencies = result.latencies();
+        Map<String, Object> latencyMillis = new LinkedHashMap<>();
+        latencyMillis.put("mean", latencies.getMean() / 1e6);
+        latencyMillis.put("p50", millis(latencies, 50));
+        latencyMillis.put("p90", millis(latencies, 90));
+        latencyMillis.put("p99", millis(latencies, 99));
+        latencyMillis.put("p99.9", millis(latencies, 99.9));
+        latencyMillis.put("max", latencies.getMaxValue() / 1e6);
+
+        Map<String, Object> step = new LinkedHashMap<>();
+        step.put("name", result.step().name());
+        step.put("method", result.step().method());
+        step.put("path", result.step().path());
+        step.put("targetRate", result.step().rate());
+        step.put("requests", result.requests());
+        step.put("errors", result.errors());
+        step.put("throughput", result.requests() / result.elapsedSeconds());
+        step.put("latencyMillis", latencyMillis);
+        return step;
+    }
+
+    private static void print(List<OpenModelDriver.StepResult> results) {
+        System.out.printf("%-20s %8s %8s %10s %9s %9s %9s %9s%n",
+                "passo", "req", "erros", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms");
+        for (OpenModelDriver.StepResult result : results) {
+            Histogram latencies = result.latencies();
+            System.out.printf("%-20s %8d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    result.step().name(), result.requests(), result.errors(),
+                    result.requests() / result.elapsedSeconds(),
+                    millis(latencies, 50), millis(latencies, 90), millis(latencies, 99), millis(latencies, 99.9));
+        }
+    }
+
+    private static double millis(Histogram latencies, double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1e6;
+    }
+}
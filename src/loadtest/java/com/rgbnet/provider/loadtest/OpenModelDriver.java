@@ -0,0 +1,131 @@
+package com.rgbnet.provider.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Gerador de carga em modelo aberto: cada passo dispara requisições em instantes fixos (1/rate), cada uma
+// em sua própria virtual thread, sem esperar as anteriores terminarem. A latência é medida a partir do
+// instante planejado, não do envio efetivo, para que atrasos do servidor não reduzam a carga medida
+// (coordinated omission).
+class OpenModelDriver {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    record SeededUser(String username, String email, String password) {
+    }
+
+    record StepResult(Scenario.Step step, long requests, long errors, double elapsedSeconds, Histogram latencies) {
+    }
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final List<SeededUser> users;
+    private final List<String> tokens;
+
+    OpenModelDriver(HttpClient httpClient, String baseUrl, List<SeededUser> users, List<String> tokens) {
+        this.httpClient = httpClient;
+        this.baseUrl = baseUrl;
+        this.users = users;
+        this.tokens = tokens;
+    }
+
+    // Todos os passos rodam ao mesmo tempo, cada um com seu despachante, durante a duração informada
+    List<StepResult> run(List<Scenario.Step> steps, Duration duration) throws InterruptedException {
+        List<StepRun> runs = steps.stream().map(StepRun::new).toList();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Thread> dispatchers = new ArrayList<>();
+            for (StepRun run : runs) {
+                dispatchers.add(Thread.ofPlatform()
+                        .name("loadtest-" + run.step.name())
+                        .start(() -> dispatch(run, start, end, requests)));
+            }
+            for (Thread dispatcher : dispatchers) {
+                dispatcher.join();
+            }
+        } // close() espera as requisições ainda em voo
+
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        return runs.stream()
+                .map(run -> new StepResult(run.step, run.latencies.getTotalCount(), run.errors.sum(),
+                        elapsedSeconds, run.latencies))
+                .toList();
+    }
+
+    private void dispatch(StepRun run, long start, long end, ExecutorService requests) {
+        long interval = (long) (1_000_000_000L / run.step.rate());
+        for (long intended = start; intended < end; intended += interval) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            long scheduledAt = intended;
+            requests.execute(() -> send(run, scheduledAt));
+        }
+    }
+
+    private void send(StepRun run, long scheduledAt) {
+        try {
+            HttpResponse<Void> response = httpClient.send(request(run.step), HttpResponse.BodyHandlers.discarding());
+            run.latencies.recordValue(System.nanoTime() - scheduledAt);
+            if (response.statusCode() >= 400) {
+                run.errors.increment();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // Timeouts e conexões recusadas contam como erro e ficam fora do histograma
+            run.errors.increment();
+        }
+    }
+
+    private HttpRequest request(Scenario.Step step) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        SeededUser user = users.get(random.nextInt(users.size()));
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + expand(step.path(), user)))
+                .timeout(REQUEST_TIMEOUT);
+        if (step.authenticated()) {
+            builder.header("Authorization", "Bearer " + tokens.get(random.nextInt(tokens.size())));
+        }
+        if (step.body() != null) {
+            builder.header("Content-Type", "application/json")
+                    .method(step.method(), HttpRequest.BodyPublishers.ofString(expand(step.body(), user)));
+        } else {
+            builder.method(step.method(), HttpRequest.BodyPublishers.noBody());
+        }
+        return builder.build();
+    }
+
+    private static String expand(String template, SeededUser user) {
+        return template.replace("{username}", user.username())
+                .replace("{email}", user.email())
+                .replace("{password}", user.password());
+    }
+
+    private static final class StepRun {
+
+        private final Scenario.Step step;
+        // Em nanossegundos, com três dígitos significativos; cresce conforme a maior latência observada
+        private final ConcurrentHistogram latencies = new ConcurrentHistogram(3);
+        private final LongAdder errors = new LongAdder();
+
+        private StepRun(Scenario.Step step) {
+            this.step = step;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.rgbnet.provider.loadtest;
+
+import java.util.List;
+import java.util.Map;
+
+// Cenário de carga lido de src/loadtest/scenarios/*.json. Cada passo tem taxa de chegada própria
+// (requisições por segundo, modelo aberto) e pode usar {username}, {email} e {password} de um usuário
+// semeado, sorteado a cada requisição, no caminho e no corpo.
+record Scenario(
+        String name,
+        String description,
+        int users,
+        List<String> roles,
+        int tokens,
+        int warmupSeconds,
+        int durationSeconds,
+        Map<String, String> properties,
+        List<Step> steps
+) {
+
+    Scenario {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("O cenário precisa de um nome");
+        }
+        if (steps == null || steps.isEmpty()) {
+            throw new IllegalArgumentException("O cenário " + name + " não tem passos");
+        }
+        if (users <= 0) {
+            users = 1_000;
+        }
+        roles = roles == null || roles.isEmpty() ? List.of("USER") : List.copyOf(roles);
+        // Tokens obtidos antes da medição para as chamadas autenticadas; cada login custa um bcrypt
+        tokens = tokens <= 0 ? Math.min(users, 100) : Math.min(tokens, users);
+        durationSeconds = durationSeconds <= 0 ? 60 : durationSeconds;
+        warmupSeconds = Math.max(0, warmupSeconds);
+        properties = properties == null ? Map.of() : Map.copyOf(properties);
+        steps = List.copyOf(steps);
+    }
+
+    record Step(String name, String method, String path, String body, double rate, boolean authenticated) {
+
+        Step {
+            if (name == null || path == null || rate <= 0) {
+                throw new IllegalArgumentException("Passo inválido: name, path e rate (> 0) são obrigatórios");
+            }
+            method = method == null ? "GET" : method.toUpperCase();
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.rgbnet.provider.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Sobe a aplicação em processos separados, alternando o modo padrão (jar simples) e o otimizado (classes do
+// processAot e arquivo AppCDS), e mede o tempo do início do processo até o primeiro /api/actuator/health com
+// status 200 e o RSS do processo nesse instante. O resultado vai para <diretório de saída>/startup.json, com
+// mediana, mínimo e máximo por modo. Configurado pela task startupBenchmark do Gradle (propriedades startup.*).
+// Uso: StartupBenchmark <diretório de saída>
+public final class StartupBenchmark {
+
+    private static final String MAIN_CLASS = "com.rgbnet.provider.ProviderApplication";
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(120);
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    private record Mode(String name, List<String> jvmArgs, String classpath) {
+    }
+
+    private record Run(long startupMillis, long rssKilobytes) {
+    }
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Uso: StartupBenchmark <diretório de saída>");
+        }
+        Path outputDirectory = Path.of(args[0]);
+        Files.createDirectories(outputDirectory);
+        int runs = Integer.getInteger("startup.runs", 5);
+        String profiles = System.getProperty("startup.profiles", "");
+
+        List<Mode> modes = List.of(
+                new Mode("baseline", List.of(), required("startup.baseline.classpath")),
+                new Mode("optimized", List.of("-Dspring.aot.enabled=true",
+                        "-XX:SharedArchiveFile=" + required("startup.cds-archive")),
+                        required("startup.optimized.classpath")));
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(200))
+                .build();
+        Map<String, List<Run>> results = new LinkedHashMap<>();
+        modes.forEach(mode -> results.put(mode.name(), new ArrayList<>()));
+        // Uma execução de aquecimento por modo (cache de disco do SO) e depois os modos intercalados
+        for (int i = -1; i < runs; i++) {
+            for (Mode mode : modes) {
+                Run run = start(mode, profiles, httpClient, outputDirectory.resolve(mode.name() + ".log"));
+                if (i >= 0) {
+                    results.get(mode.name()).add(run);
+                    System.out.printf("%-10s #%d  %6d ms  RSS %7.1f MB%n", mode.name(), i + 1,
+                            run.startupMillis(), run.rssKilobytes() / 1024.0);
+                }
+            }
+        }
+
+        Path output = write(results, profiles, outputDirectory);
+        results.forEach((mode, modeRuns) -> System.out.printf("%-10s mediana %6d ms  RSS mediano %7.1f MB%n", mode,
+                median(modeRuns.stream().mapToLong(Run::startupMillis).toArray()),
+                median(modeRuns.stream().mapToLong(Run::rssKilobytes).toArray()) / 1024.0));
+        System.out.println("Resultado gravado em " + output.toAbsolutePath());
+    }
+
+    private static Run start(Mode mode, String profiles, HttpClient httpClient, Path log) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(mode.jvmArgs());
+        command.addAll(List.of("-cp", mode.classpath(), MAIN_CLASS, "--server.port=" + port,
+                "--spring.jpa.show-sql=false"));
+        if (!profiles.isBlank()) {
+            command.add("--spring.profiles.active=" + profiles);
+        }
+        HttpRequest health = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/actuator/health"))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            long deadline = start + STARTUP_TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(mode.name() + " terminou com status " + process.exitValue()
+                            + " antes de responder; veja " + log);
+                }
+                if (healthy(httpClient, health)) {
+                    long startupMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    return new Run(startupMillis, rss(process.pid()));
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException(mode.name() + " não respondeu em " + STARTUP_TIMEOUT + "; veja " + log);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static boolean healthy(HttpClient httpClient, HttpRequest health) throws InterruptedException {
+        try {
+            return httpClient.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            // Porta ainda fechada, ou conexão aceita e encerrada enquanto o Undertow sobe
+            return false;
+        }
+    }
+
+    // VmRSS de /proc no Linux; nos demais sistemas, ps
+    private static long rss(long pid) throws IOException, InterruptedException {
+        Path status = Path.of("/proc", String.valueOf(pid), "status");
+        if (Files.exists(status)) {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        }
+        Process ps = new ProcessBuilder("ps", "-o", "rss=", "-p", String.valueOf(pid)).start();
+        String output = new String(ps.getInputStream().readAllBytes()).trim();
+        ps.waitFor();
+        return output.isEmpty() ? -1 : Long.parseLong(output);
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Path write(Map<String, List<Run>> results, String profiles, Path outputDirectory)
+            throws IOException {
+        Map<String, Object> modes = new LinkedHashMap<>();
+        results.forEach((mode, runs) -> {
+            long[] startup = runs.stream().mapToLong(Run::startupMillis).toArray();
+            long[] rss = runs.stream().mapToLong(Run::rssKilobytes).toArray();
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("startupMillis", Map.of("median", median(startup),
+                    "min", Arrays.stream(startup).min().orElse(0), "max", Arrays.stream(startup).max().orElse(0)));
+            summary.put("rssKilobytes", Map.of("median", median(rss),
+                    "min", Arrays.stream(rss).min().orElse(0), "max", Arrays.stream(rss).max().orElse(0)));
+            summary.put("runs", runs);
+            modes.put(mode, summary);
+        });
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("revision", System.getProperty("startup.revision", "unknown"));
+        report.put("timestamp", Instant.now().toString());
+        report.put("javaVersion", Runtime.version().toString());
+        report.put("profiles", profiles);
+        report.put("modes", modes);
+
+        Path output = outputDirectory.resolve("startup.json");
+        OBJECT_MAPPER.writeValue(output.toFile(), report);
+        return output;
+    }
+
+    private static long median(long[] values) {
+        if (values.length == 0) {
+            return 0;
+        }
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static String required(String property) {
+        String value = System.getProperty(property);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(
+                    "Propriedade " + property + " não informada (use ./gradlew startupBenchmark)");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,54 @@
+package com.rgbnet.provider.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.time.Duration;
+
+@Configuration
+public class KafkaConfig {
+
+    // Listeners em lote: o offset de um poll só é confirmado quando o método do listener retorna sem erro.
+    // Falhas de infraestrutura (banco fora do ar) repetem o lote indefinidamente em vez de descartá-lo.
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> batchListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory,
+            @Value("${provisioning.consumer.retry-interval:5s}") Duration retryInterval
+    ) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(
+                new FixedBackOff(retryInterval.toMillis(), FixedBackOff.UNLIMITED_ATTEMPTS)));
+        return factory;
+    }
+
+    // Tópico compactado: o Kafka mantém ao menos o último evento (estado completo) de cada usuário, o que
+    // permite ao UserDirectoryProjection reconstruir o diretório lendo o tópico desde o início
+    @Bean
+    @ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true")
+    public NewTopic userEventsTopic(
+            @Value("${outbox.relay.topic:user-events}") String topic,
+            @Value("${outbox.relay.topic-partitions:6}") int partitions,
+            @Value("${outbox.relay.topic-replicas:1}") int replicas
+    ) {
+        return TopicBuilder.name(topic)
+                .partitions(partitions)
+                .replicas(replicas)
+                .compact()
+                .build();
+    }
+}
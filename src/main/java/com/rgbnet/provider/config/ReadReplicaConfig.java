@@ -0,0 +1,72 @@
+package com.rgbnet.provider.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// Ativado com datasource.routing.enabled=true. O primário continua vindo de spring.datasource (e
+// spring.datasource.hikari); cada URL de datasource.routing.replica-urls ganha seu próprio pool Hikari.
+// O DataSource que JPA, JdbcTemplate e Flyway recebem é o proxy preguiçoso sobre o roteador.
+@Configuration
+@ConditionalOnProperty(name = "datasource.routing.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            DataSourceProperties properties,
+            MeterRegistry meterRegistry,
+            @Value("${datasource.routing.replica-urls}") List<String> replicaUrls,
+            @Value("${datasource.routing.replica-username:${spring.datasource.username:}}") String username,
+            @Value("${datasource.routing.replica-password:${spring.datasource.password:}}") String password,
+            @Value("${datasource.routing.replica-pool-size:10}") int poolSize,
+            @Value("${datasource.routing.strategy:least-in-flight}") ReplicaRoutingDataSource.Strategy strategy,
+            @Value("${datasource.routing.lag-query}") String lagQuery,
+            @Value("${datasource.routing.max-lag-ms:5000}") long maxLagMillis
+    ) {
+        List<HikariDataSource> replicas = new ArrayList<>(replicaUrls.size());
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("replica-" + i);
+            config.setJdbcUrl(replicaUrls.get(i));
+            config.setUsername(username);
+            config.setPassword(password);
+            config.setDriverClassName(properties.determineDriverClassName());
+            config.setMaximumPoolSize(poolSize);
+            config.setReadOnly(true);
+            // Uma réplica fora do ar não impede a subida: ela só fica fora do rodízio
+            config.setInitializationFailTimeout(-1);
+            // Os pools das réplicas não são beans, então o Spring Boot não liga as métricas hikaricp.* deles
+            config.setMetricRegistry(meterRegistry);
+            replicas.add(new HikariDataSource(config));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, strategy, lagQuery, maxLagMillis,
+                meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,193 @@
+package com.rgbnet.provider.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Envia as transações somente leitura para as réplicas e todo o resto (escritas e acessos fora de transação) para
+// o primário. Só funciona atrás de um LazyConnectionDataSourceProxy: o flag de somente leitura da transação é
+// publicado depois que o gerenciador de transações pede a conexão, então a escolha precisa esperar a primeira
+// instrução. Uma transação que participa de outra herda o flag da externa, ou seja, uma escrita chamada de dentro
+// de um método readOnly iria para a réplica e falharia; os métodos readOnly do UserService não fazem isso.
+// A cada datasource.routing.lag-check-interval-ms a consulta de atraso roda em cada réplica; uma réplica que
+// falha ou passa de max-lag sai do rodízio até a próxima verificação. Sem réplica saudável, a leitura vai ao
+// primário.
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    public static final String PRIMARY = "primary";
+
+    public enum Strategy {
+        ROUND_ROBIN, LEAST_IN_FLIGHT
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final HikariDataSource dataSource;
+        private volatile boolean healthy;
+        private volatile double lagSeconds = Double.NaN;
+        private final Counter routed;
+
+        private Replica(String name, HikariDataSource dataSource, Counter routed) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.routed = routed;
+        }
+
+        private int inFlight() {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            return pool != null ? pool.getActiveConnections() : 0;
+        }
+    }
+
+    private final List<Replica> replicas;
+    private final Strategy strategy;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Counter writes;
+    private final Counter fallbacks;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas, Strategy strategy,
+                                    String lagQuery, long maxLagMillis, MeterRegistry meterRegistry) {
+        this.replicas = replicas.stream()
+                .map(dataSource -> new Replica(dataSource.getPoolName(), dataSource,
+                        routed(meterRegistry, dataSource.getPoolName(), "read")))
+                .toList();
+        this.strategy = strategy;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagMillis / 1000.0;
+        this.writes = routed(meterRegistry, PRIMARY, "write");
+        this.fallbacks = routed(meterRegistry, PRIMARY, "fallback");
+        for (Replica replica : this.replicas) {
+            Gauge.builder("datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .description("Atraso de replicação medido na última verificação (NaN se falhou)")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.name)
+                    .register(meterRegistry);
+            Gauge.builder("datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .description("1 se a réplica está no rodízio de leitura")
+                    .tag("replica", replica.name)
+                    .register(meterRegistry);
+        }
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        this.replicas.forEach(replica -> targets.put(replica.name, replica.dataSource));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        // Nenhuma réplica recebe leitura antes da primeira verificação de atraso
+        checkReplicas();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writes.increment();
+            return PRIMARY;
+        }
+        Replica replica = select();
+        if (replica == null) {
+            fallbacks.increment();
+            return PRIMARY;
+        }
+        replica.routed.increment();
+        return replica.name;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.routing.lag-check-interval-ms:1000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean wasHealthy = replica.healthy;
+            try {
+                double lag = lag(replica.dataSource);
+                replica.lagSeconds = lag;
+                replica.healthy = lag <= maxLagSeconds;
+            } catch (SQLException e) {
+                replica.lagSeconds = Double.NaN;
+                replica.healthy = false;
+                log.debug("Verificação de atraso falhou na réplica {}: {}", replica.name, e.getMessage());
+            }
+            if (wasHealthy != replica.healthy) {
+                log.info("Réplica {} {} do rodízio de leitura (atraso {} s)", replica.name,
+                        replica.healthy ? "voltou ao" : "saiu", replica.lagSeconds);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    private Replica select() {
+        if (strategy == Strategy.LEAST_IN_FLIGHT) {
+            Replica best = null;
+            int bestInFlight = Integer.MAX_VALUE;
+            for (Replica replica : replicas) {
+                if (replica.healthy) {
+                    int inFlight = replica.inFlight();
+                    if (inFlight < bestInFlight) {
+                        best = replica;
+                        bestInFlight = inFlight;
+                    }
+                }
+            }
+            return best;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    // Resultado nulo (servidor fora de recuperação, sem nada a reaplicar) conta como atraso zero
+    private double lag(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            if (!resultSet.next()) {
+                return 0;
+            }
+            Object value = resultSet.getObject(1);
+            return value instanceof Number number ? number.doubleValue() : 0;
+        }
+    }
+
+    private static Counter routed(MeterRegistry registry, String target, String reason) {
+        return Counter.builder("datasource.routing.connections")
+                .description("Conexões entregues por destino; leituras sem réplica saudável vão ao primário")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(registry);
+    }
+}
@@ -0,0 +1,58 @@
+package com.rgbnet.provider.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.rgbnet.provider.domain.User;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+// Regiões do cache de segundo nível do Hibernate, criadas aqui com tamanho e TTL de second-level-cache.* em vez
+// do arquivo de configuração do Caffeine. Cada contexto tem seu próprio CacheManager: contextos de teste
+// simultâneos na mesma JVM não compartilham entradas. Os valores ficam por referência (store-by-value desligado),
+// já que o Hibernate guarda o estado desmontado da entidade, que não é alterado depois de gravado.
+@Configuration
+@ConditionalOnProperty(name = "spring.jpa.properties.hibernate.cache.use_second_level_cache", havingValue = "true")
+public class SecondLevelCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(
+            @Value("${second-level-cache.users.max-size:50000}") long usersMaxSize,
+            @Value("${second-level-cache.users.ttl:10m}") Duration usersTtl,
+            @Value("${second-level-cache.roles.max-size:50000}") long rolesMaxSize,
+            @Value("${second-level-cache.roles.ttl:10m}") Duration rolesTtl,
+            @Value("${second-level-cache.natural-id.max-size:50000}") long naturalIdMaxSize,
+            @Value("${second-level-cache.natural-id.ttl:1h}") Duration naturalIdTtl
+    ) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("second-level-cache-" + UUID.randomUUID()),
+                        getClass().getClassLoader());
+        cacheManager.createCache(User.CACHE_REGION, region(usersMaxSize, usersTtl));
+        cacheManager.createCache(User.ROLES_CACHE_REGION, region(rolesMaxSize, rolesTtl));
+        cacheManager.createCache(User.NATURAL_ID_CACHE_REGION, region(naturalIdMaxSize, naturalIdTtl));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheManagerCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maxSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        configuration.setStoreByValue(false);
+        return configuration;
+    }
+}
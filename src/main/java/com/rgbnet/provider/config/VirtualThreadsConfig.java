@@ -0,0 +1,28 @@
+package com.rgbnet.provider.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.embedded.undertow.UndertowDeploymentInfoCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+// Ativado com spring.threads.virtual.enabled=true. O Spring Boot já coloca @Async, @Scheduled e os
+// listeners do Kafka em virtual threads nesse modo; aqui fazemos o mesmo com as requisições do Undertow,
+// que continua usando as io-threads apenas para I/O não bloqueante.
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfig {
+
+    @Bean
+    public UndertowDeploymentInfoCustomizer virtualThreadDeploymentInfoCustomizer() {
+        return deploymentInfo -> {
+            Executor executor = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("undertow-vt-", 0).factory());
+            deploymentInfo.setExecutor(executor);
+            deploymentInfo.setAsyncExecutor(executor);
+        };
+    }
+}
@@ -2,39 +2,119 @@ package com.rgbnet.provider.controller;
 
 import com.rgbnet.provider.dto.AuthRequest;
 import com.rgbnet.provider.dto.AuthResponse;
+import com.rgbnet.provider.dto.RefreshRequest;
 import com.rgbnet.provider.security.JwtTokenProvider;
+import com.rgbnet.provider.service.RefreshTokenService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.validation.Valid;
-import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.LockedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
 @RestController
 @RequestMapping("/auth")
-@RequiredArgsConstructor
 public class AuthController {
 
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider jwtTokenProvider;
+    private final RefreshTokenService refreshTokenService;
+    private final UserDetailsService userDetailsService;
+
+    private final Timer authenticateTimer;
+    private final Timer tokenTimer;
+
+    public AuthController(
+            AuthenticationManager authenticationManager,
+            JwtTokenProvider jwtTokenProvider,
+            RefreshTokenService refreshTokenService,
+            UserDetailsService userDetailsService,
+            MeterRegistry meterRegistry
+    ) {
+        this.authenticationManager = authenticationManager;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.refreshTokenService = refreshTokenService;
+        this.userDetailsService = userDetailsService;
+        this.authenticateTimer = stage(meterRegistry, "authenticate");
+        this.tokenTimer = stage(meterRegistry, "token");
+    }
 
     @PostMapping("/login")
     public ResponseEntity<AuthResponse> login(@Valid @RequestBody AuthRequest authRequest) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        authRequest.getUsername(),
-                        authRequest.getPassword()
-                )
-        );
+        // Logins recusados também contam: o bcrypt roda do mesmo jeito
+        long start = System.nanoTime();
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            authRequest.getUsername(),
+                            authRequest.getPassword()
+                    )
+            );
+        } finally {
+            start = record(authenticateTimer, start);
+        }
 
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        String token = jwtTokenProvider.generateToken(userDetails);
+        JwtTokenProvider.IssuedToken accessToken = jwtTokenProvider.issue(userDetails);
+        String refreshToken = refreshTokenService.issue(userDetails.getUsername(), accessToken);
+        record(tokenTimer, start);
         
-        return ResponseEntity.ok(new AuthResponse(token));
+        return ResponseEntity.ok(response(accessToken, refreshToken));
+    }
+
+    // Troca o refresh token por um novo par; o anterior deixa de valer
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshRequest refreshRequest) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshRequest.getRefreshToken(),
+                username -> {
+                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                    if (!userDetails.isEnabled()) {
+                        throw new DisabledException("Usuário desativado");
+                    }
+                    if (!userDetails.isAccountNonLocked()) {
+                        throw new LockedException("Usuário bloqueado");
+                    }
+                    return jwtTokenProvider.issue(userDetails);
+                });
+        return ResponseEntity.ok(response(rotation.accessToken(), rotation.refreshToken()));
+    }
+
+    // Encerra a sessão: revoga a família do refresh token e os access tokens emitidos por ela
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshRequest refreshRequest) {
+        refreshTokenService.revoke(refreshRequest.getRefreshToken());
+        return ResponseEntity.noContent().build();
+    }
+
+    private static Timer stage(MeterRegistry registry, String stage) {
+        return Timer.builder("auth.login.stage")
+                .description("Tempo de cada etapa do login: autenticação da senha e emissão do token")
+                .tag("stage", stage)
+                .register(registry);
+    }
+
+    private static AuthResponse response(JwtTokenProvider.IssuedToken accessToken, String refreshToken) {
+        long expiresIn = Math.max(0, Duration.between(Instant.now(), accessToken.expiresAt()).toSeconds());
+        return new AuthResponse(accessToken.token(), refreshToken, expiresIn);
+    }
+
+    private static long record(Timer timer, long start) {
+        long now = System.nanoTime();
+        timer.record(now - start, TimeUnit.NANOSECONDS);
+        return now;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.rgbnet.provider.controller;
+
+import com.rgbnet.provider.dto.AvailabilityResponse;
+import com.rgbnet.provider.exception.BadRequestException;
+import com.rgbnet.provider.service.UserAvailabilityService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+// Consultado a cada tecla nos formulários de cadastro e a cada registro pelos parceiros; público como o
+// resto de /auth, com o limite por IP do LoginRateLimitFilter
+@RestController
+@RequiredArgsConstructor
+public class AvailabilityController {
+
+    private final UserAvailabilityService userAvailabilityService;
+
+    @GetMapping("/auth/availability")
+    public ResponseEntity<AvailabilityResponse> availability(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String email) {
+        if ((username == null || username.isBlank()) && (email == null || email.isBlank())) {
+            throw new BadRequestException("Informe username ou email");
+        }
+        return ResponseEntity.ok(new AvailabilityResponse(
+                username != null && !username.isBlank() ? userAvailabilityService.isUsernameAvailable(username) : null,
+                email != null && !email.isBlank() ? userAvailabilityService.isEmailAvailable(email) : null));
+    }
+}
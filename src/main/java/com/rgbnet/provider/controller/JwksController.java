@@ -0,0 +1,40 @@
+package com.rgbnet.provider.controller;
+
+import com.rgbnet.provider.security.JwtKeyRing;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+
+// Chaves públicas para que os outros módulos verifiquem nossos tokens sem chamar este serviço.
+// O JSON já vem serializado do key ring; clientes revalidam com If-None-Match e recebem 304 sem corpo.
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+
+    private final JwtKeyRing keyRing;
+
+    @Value("${jwt.keys.jwks-max-age:5m}")
+    private Duration maxAge;
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<String> jwks(WebRequest request) {
+        JwtKeyRing.Jwks jwks = keyRing.jwks();
+        CacheControl cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+        if (request.checkNotModified(jwks.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).eTag(jwks.etag()).build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .eTag(jwks.etag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jwks.json());
+    }
+}
@@ -0,0 +1,215 @@
+package com.rgbnet.provider.controller;
+
+import com.rgbnet.provider.dto.CursorPage;
+import com.rgbnet.provider.dto.UserDTO;
+import com.rgbnet.provider.dto.UserImportReport;
+import com.rgbnet.provider.dto.UserSearchHit;
+import com.rgbnet.provider.exception.BadRequestException;
+import com.rgbnet.provider.exception.PreconditionFailedException;
+import com.rgbnet.provider.service.UserExportService;
+import com.rgbnet.provider.service.UserImportService;
+import com.rgbnet.provider.service.UserSearchService;
+import com.rgbnet.provider.service.UserService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+// Recursos individuais levam uma ETag forte derivada de BaseEntity.version: GET com If-None-Match responde 304
+// consultando só a versão, e PUT/PATCH/DELETE com If-Match respondem 412 quando o usuário mudou desde a leitura
+@RestController
+@RequestMapping("/users")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class UserController {
+
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+    private static final String CSV_VALUE = "text/csv";
+    private static final MediaType NDJSON = MediaType.parseMediaType(NDJSON_VALUE);
+
+    // Campos que o PATCH altera, com o getter usado para saber se vieram no corpo
+    private static final Map<String, Function<UserDTO, Object>> PATCHABLE_FIELDS = Map.of(
+            "fullName", UserDTO::getFullName,
+            "email", UserDTO::getEmail,
+            "phone", UserDTO::getPhone,
+            "password", UserDTO::getPassword);
+
+    private final UserService userService;
+    private final UserExportService userExportService;
+    private final UserImportService userImportService;
+    private final UserSearchService userSearchService;
+    private final Validator validator;
+
+    @GetMapping
+    public ResponseEntity<CursorPage<UserDTO>> list(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) Boolean active) {
+        return ResponseEntity.ok(userService.findPage(cursor, size, active));
+    }
+
+    // Busca exata por username ou e-mail, atendida pelo diretório em memória quando habilitado
+    @GetMapping("/lookup")
+    public ResponseEntity<UserDTO> lookup(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String email) {
+        if (username != null) {
+            return ResponseEntity.ok(userService.findByUsername(username));
+        }
+        if (email != null) {
+            return ResponseEntity.ok(userService.findByEmail(email));
+        }
+        throw new BadRequestException("Informe username ou email");
+    }
+
+    // Autocomplete por prefixo e aproximação em nome, username, e-mail e telefone, ordenado por relevância
+    @GetMapping("/search")
+    public ResponseEntity<CursorPage<UserSearchHit>> search(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) Boolean active) {
+        return ResponseEntity.ok(userSearchService.search(query, cursor, size, active));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(required = false) Boolean active) {
+        StreamingResponseBody body = outputStream -> userExportService.export(active, outputStream);
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .body(body);
+    }
+
+    // Corpo lido em streaming: o arquivo nunca é carregado inteiro em memória
+    @PostMapping(value = "/import", consumes = {CSV_VALUE, NDJSON_VALUE})
+    public ResponseEntity<UserImportReport> importUsers(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) throws IOException {
+        UserImportService.Format format = contentType.isCompatibleWith(NDJSON)
+                ? UserImportService.Format.NDJSON
+                : UserImportService.Format.CSV;
+        return ResponseEntity.ok(userImportService.importUsers(body, format));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<UserDTO> findById(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String etag = etag(userService.findVersion(id));
+            if (matchesAny(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+        }
+        UserDTO user = userService.findById(id);
+        return ResponseEntity.ok().eTag(etag(user.getVersion())).body(user);
+    }
+
+    @PostMapping
+    public ResponseEntity<UserDTO> create(@Valid @RequestBody UserDTO userDTO) {
+        if (userDTO.getPassword() == null || userDTO.getPassword().isBlank()) {
+            throw new BadRequestException("A senha é obrigatória");
+        }
+        UserDTO created = userService.create(userDTO);
+        return ResponseEntity.created(ServletUriComponentsBuilder.fromCurrentRequest()
+                        .path("/{id}")
+                        .buildAndExpand(created.getId())
+                        .toUri())
+                .eTag(etag(created.getVersion()))
+                .body(created);
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<UserDTO> update(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody UserDTO userDTO) {
+        UserDTO updated = userService.update(id, userDTO, expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(etag(updated.getVersion())).body(updated);
+    }
+
+    // Sem @Valid, que exigiria os campos ausentes: só os informados são validados (um fullName vazio é recusado,
+    // um fullName ausente fica como está)
+    @PatchMapping("/{id}")
+    public ResponseEntity<UserDTO> patch(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody UserDTO changes) {
+        Set<ConstraintViolation<UserDTO>> violations = new HashSet<>();
+        PATCHABLE_FIELDS.forEach((field, value) -> {
+            if (value.apply(changes) != null) {
+                violations.addAll(validator.validateProperty(changes, field));
+            }
+        });
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        UserDTO updated = userService.patch(id, changes, expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(etag(updated.getVersion())).body(updated);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        userService.delete(id, expectedVersion(ifMatch));
+        return ResponseEntity.noContent().build();
+    }
+
+    private static String etag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    // If-None-Match usa comparação fraca: W/"3" também casa com "3"
+    private static boolean matchesAny(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // If-Match usa comparação forte: só uma ETag "n" emitida por aqui casa; ausente ou * dispensa a verificação
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            String version = tag.substring(1, tag.length() - 1);
+            if (version.length() < 19 && version.chars().allMatch(Character::isDigit)) {
+                return Long.parseLong(version);
+            }
+        }
+        throw new PreconditionFailedException("If-Match não corresponde a nenhuma versão do usuário: " + tag);
+    }
+}
@@ -0,0 +1,46 @@
+package com.rgbnet.provider.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Refresh token persistido pelo hash. Gravado e lido por JDBC (RefreshTokenService);
+// o mapeamento mantém a tabela sob o ddl-auto dos testes e o validate de produção.
+@Entity
+@Table(name = "refresh_tokens")
+@Getter
+@NoArgsConstructor
+public class RefreshToken {
+
+    @Id
+    private UUID id;
+
+    @Column(nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    @Column(nullable = false)
+    private UUID familyId;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false)
+    private UUID accessJti;
+
+    @Column(nullable = false)
+    private LocalDateTime accessExpiresAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime rotatedAt;
+
+    private LocalDateTime revokedAt;
+}
@@ -0,0 +1,26 @@
+package com.rgbnet.provider.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// jti de access token revogado antes de expirar. Gravado por JDBC (RefreshTokenService) e lido pelo
+// RevokedAccessTokens; o mapeamento mantém a tabela sob o ddl-auto dos testes e o validate de produção.
+@Entity
+@Table(name = "revoked_access_tokens")
+@Getter
+@NoArgsConstructor
+public class RevokedAccessToken {
+
+    @Id
+    private UUID jti;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(nullable = false)
+    private LocalDateTime revokedAt;
+}
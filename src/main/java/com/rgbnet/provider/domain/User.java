@@ -2,6 +2,10 @@ package com.rgbnet.provider.domain;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -11,8 +15,13 @@ import java.util.HashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+// Cache de segundo nível (regiões configuradas em SecondLevelCacheConfig): a entidade, os papéis e a resolução
+// username -> id. O username nunca muda depois do cadastro, por isso é o natural id imutável.
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@NaturalIdCache(region = User.NATURAL_ID_CACHE_REGION)
 @Getter
 @Setter
 @Builder
@@ -20,6 +29,11 @@ import java.util.stream.Collectors;
 @AllArgsConstructor
 public class User extends BaseEntity implements UserDetails {
 
+    public static final String CACHE_REGION = "users";
+    public static final String ROLES_CACHE_REGION = "users.roles";
+    public static final String NATURAL_ID_CACHE_REGION = "users.natural-id";
+
+    @NaturalId
     @Column(nullable = false, unique = true)
     private String username;
 
@@ -36,14 +50,19 @@ public class User extends BaseEntity implements UserDetails {
     private String phone;
 
     @ElementCollection(fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.ROLES_CACHE_REGION)
     @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
     @Column(name = "role")
     @Builder.Default
     private Set<String> roles = new HashSet<>();
 
+    @Builder.Default
     private boolean accountNonExpired = true;
+    @Builder.Default
     private boolean accountNonLocked = true;
+    @Builder.Default
     private boolean credentialsNonExpired = true;
+    @Builder.Default
     private boolean enabled = true;
 
     @Override
@@ -0,0 +1,36 @@
+package com.rgbnet.provider.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Linha da outbox de eventos de usuário. Gravada e lida por JDBC (UserEventOutbox e UserOutboxRelay);
+// o mapeamento mantém a tabela sob o ddl-auto dos testes e o validate de produção.
+@Entity
+@Table(name = "user_outbox")
+@Getter
+@NoArgsConstructor
+public class UserOutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private UUID aggregateId;
+
+    @Column(nullable = false, length = 20)
+    private String eventType;
+
+    @Column(nullable = false, length = 4000)
+    private String payload;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // Preenchido enquanto um relay publica a linha; null quando ainda não foi reservada
+    private LocalDateTime claimedUntil;
+}
@@ -0,0 +1,41 @@
+package com.rgbnet.provider.domain;
+
+import lombok.ToString;
+import lombok.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+// Cópia imutável de um User para autenticação: pode ser compartilhada entre threads e mantida em cache
+@Value
+public class UserSnapshot implements UserDetails {
+
+    UUID id;
+    String username;
+    // Hash da senha: fora do toString para não ir parar em logs
+    @ToString.Exclude
+    String password;
+    Set<String> roles;
+    List<GrantedAuthority> authorities;
+    boolean accountNonExpired;
+    boolean accountNonLocked;
+    boolean credentialsNonExpired;
+    boolean enabled;
+
+    public static UserSnapshot from(User user) {
+        return new UserSnapshot(
+                user.getId(),
+                user.getUsername(),
+                user.getPassword(),
+                Set.copyOf(user.getRoles()),
+                List.copyOf(user.getAuthorities()),
+                user.isAccountNonExpired(),
+                user.isAccountNonLocked(),
+                user.isCredentialsNonExpired(),
+                user.isEnabled()
+        );
+    }
+}
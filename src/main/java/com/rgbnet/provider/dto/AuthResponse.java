@@ -10,4 +10,13 @@ import lombok.NoArgsConstructor;
 public class AuthResponse {
 
     private String token;
-} 
\ No newline at end of file
+
+    private String refreshToken;
+
+    // Segundos até o access token expirar
+    private Long expiresIn;
+
+    public AuthResponse(String token) {
+        this.token = token;
+    }
+}
@@ -0,0 +1,18 @@
+package com.rgbnet.provider.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> items;
+
+    // Nulo quando não há próxima página
+    private String nextCursor;
+}
@@ -0,0 +1,42 @@
+package com.rgbnet.provider.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+// Mensagem de ativação de assinante emitida pelo billing, com o username como chave no Kafka
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubscriberActivation {
+
+    @NotBlank(message = "O nome de usuário é obrigatório")
+    @Size(min = 3, max = 50, message = "O nome de usuário deve ter entre 3 e 50 caracteres")
+    private String username;
+
+    // Usada apenas na criação; sem senha o assinante precisa redefini-la antes do primeiro login
+    @Size(min = 6, message = "A senha deve ter pelo menos 6 caracteres")
+    private String password;
+
+    @NotBlank(message = "O nome completo é obrigatório")
+    private String fullName;
+
+    @NotBlank(message = "O e-mail é obrigatório")
+    @Email(message = "E-mail inválido")
+    private String email;
+
+    private String phone;
+
+    // Vazio mantém os papéis atuais (ou USER na criação)
+    private Set<String> roles;
+
+    // Ausente equivale a ativo
+    private Boolean active;
+}
@@ -48,4 +48,8 @@ public class UserDTO {
     private LocalDateTime updatedAt;
 
     private boolean active;
+
+    // Origem da ETag; ignorada na entrada, a versão esperada vem do If-Match
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
 } 
\ No newline at end of file
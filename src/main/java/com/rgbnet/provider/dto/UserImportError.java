@@ -0,0 +1,15 @@
+package com.rgbnet.provider.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportError {
+
+    private long line;
+    private String username;
+    private String message;
+}
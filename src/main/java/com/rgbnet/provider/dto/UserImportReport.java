@@ -0,0 +1,20 @@
+package com.rgbnet.provider.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class UserImportReport {
+
+    private long total;
+    private long imported;
+    private long failed;
+    private long durationMillis;
+
+    // Limitado por users.import.max-reported-errors; "failed" traz o total real
+    private List<UserImportError> errors = new ArrayList<>();
+}
@@ -0,0 +1,31 @@
+package com.rgbnet.provider.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+// Resultado da busca de operadores: só os campos indexados, sem ida ao banco
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSearchHit {
+
+    private UUID id;
+
+    private String username;
+
+    private String fullName;
+
+    private String email;
+
+    private String phone;
+
+    private boolean active;
+
+    // Maior é melhor: 3 por termo exato, 2 por prefixo, a similaridade de trigramas (até 1) por termo aproximado
+    private double score;
+}
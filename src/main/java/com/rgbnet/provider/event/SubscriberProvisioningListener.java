@@ -0,0 +1,32 @@
+package com.rgbnet.provider.event;
+
+import com.rgbnet.provider.service.SubscriberProvisioningService;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Consome as ativações de assinante do billing. Cada poll é aplicado inteiro em uma transação e o
+// container só confirma os offsets (AckMode.BATCH) depois que o método retorna, ou seja, após o commit.
+@Component
+@ConditionalOnProperty(name = "provisioning.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class SubscriberProvisioningListener {
+
+    private final SubscriberProvisioningService subscriberProvisioningService;
+
+    @KafkaListener(
+            id = "subscriber-provisioning",
+            idIsGroup = false,
+            topics = "${provisioning.topic:subscriber-activations}",
+            containerFactory = "batchListenerContainerFactory",
+            concurrency = "${provisioning.consumer.concurrency:3}",
+            properties = "max.poll.records=${provisioning.consumer.max-poll-records:500}"
+    )
+    public void onActivations(List<ConsumerRecord<String, String>> records) {
+        subscriberProvisioningService.process(records);
+    }
+}
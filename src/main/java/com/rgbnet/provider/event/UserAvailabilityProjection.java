@@ -0,0 +1,50 @@
+package com.rgbnet.provider.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rgbnet.provider.service.UserAvailabilityService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+// Leva aos filtros de disponibilidade deste nó os cadastros feitos nos outros. Só interessa o que vier depois
+// da leitura de users, então começa no fim do tópico e força uma reconstrução já com a posição fixada: o que
+// foi publicado antes disso já estava confirmado no banco.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "availability.feed.enabled", havingValue = "true")
+public class UserAvailabilityProjection extends UserEventProjection {
+
+    private final UserAvailabilityService userAvailabilityService;
+
+    public UserAvailabilityProjection(
+            ConsumerFactory<String, String> consumerFactory,
+            UserAvailabilityService userAvailabilityService,
+            ObjectMapper objectMapper,
+            @Value("${availability.feed.topic:user-events}") String topic,
+            @Value("${availability.feed.poll-timeout:1s}") Duration pollTimeout
+    ) {
+        super(consumerFactory, objectMapper, "user-availability", topic, pollTimeout);
+        this.userAvailabilityService = userAvailabilityService;
+    }
+
+    @Override
+    protected void onAssigned(Consumer<String, String> consumer, List<TopicPartition> partitions) {
+        consumer.seekToEnd(partitions);
+        // seekToEnd é preguiçoso; position resolve os offsets antes da leitura de users
+        partitions.forEach(consumer::position);
+        log.info("Acompanhando cadastros de outros nós em {} ({} partições)", topic, partitions.size());
+        userAvailabilityService.rebuild();
+    }
+
+    @Override
+    protected void apply(UserChangedEvent event) {
+        userAvailabilityService.apply(event);
+    }
+}
@@ -0,0 +1,54 @@
+package com.rgbnet.provider.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rgbnet.provider.repository.UserSecondLevelCache;
+import com.rgbnet.provider.service.UserDetailsCache;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+// Os caches de usuário (segundo nível do Hibernate e UserDetails) são locais a cada JVM; sem isto, uma alteração
+// feita em outro nó só apareceria aqui no fim do TTL. Cada evento remove o usuário dos caches deste nó. O evento
+// chega depois do commit e da publicação pelo relay, então também remove o que uma réplica atrasada tenha
+// recolocado no cache logo após a remoção feita pelo nó que escreveu.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "second-level-cache.invalidation.enabled", havingValue = "true")
+public class UserCacheProjection extends UserEventProjection {
+
+    private final UserSecondLevelCache userSecondLevelCache;
+    private final UserDetailsCache userDetailsCache;
+
+    public UserCacheProjection(
+            ConsumerFactory<String, String> consumerFactory,
+            UserSecondLevelCache userSecondLevelCache,
+            UserDetailsCache userDetailsCache,
+            ObjectMapper objectMapper,
+            @Value("${second-level-cache.invalidation.topic:user-events}") String topic,
+            @Value("${second-level-cache.invalidation.poll-timeout:1s}") Duration pollTimeout
+    ) {
+        super(consumerFactory, objectMapper, "user-cache", topic, pollTimeout);
+        this.userSecondLevelCache = userSecondLevelCache;
+        this.userDetailsCache = userDetailsCache;
+    }
+
+    // O que foi publicado antes da subida não está em caches que acabaram de ser criados
+    @Override
+    protected void onAssigned(Consumer<String, String> consumer, List<TopicPartition> partitions) {
+        consumer.seekToEnd(partitions);
+        log.info("Invalidando caches de usuário a partir de {} ({} partições)", topic, partitions.size());
+    }
+
+    @Override
+    protected void apply(UserChangedEvent event) {
+        userSecondLevelCache.evict(event.userId());
+        userDetailsCache.invalidate(event.username());
+    }
+}
@@ -0,0 +1,70 @@
+package com.rgbnet.provider.event;
+
+import com.rgbnet.provider.domain.User;
+import com.rgbnet.provider.dto.UserDTO;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+// Evento publicado no tópico de usuários. Leva o estado completo do usuário (sem a senha), então
+// um consumidor pode manter sua cópia apenas com o último evento de cada chave.
+public record UserChangedEvent(
+        UUID eventId,
+        Type type,
+        UUID userId,
+        Long version,
+        Instant occurredAt,
+        String username,
+        String fullName,
+        String email,
+        String phone,
+        Set<String> roles,
+        boolean active,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static UserChangedEvent of(Type type, User user) {
+        return new UserChangedEvent(
+                UUID.randomUUID(),
+                type,
+                user.getId(),
+                user.getVersion(),
+                Instant.now(),
+                user.getUsername(),
+                user.getFullName(),
+                user.getEmail(),
+                user.getPhone(),
+                new HashSet<>(user.getRoles()),
+                user.isActive(),
+                user.getCreatedAt(),
+                user.getUpdatedAt()
+        );
+    }
+
+    // Estado lido depois de um UPDATE em massa, sem a entidade carregada
+    public static UserChangedEvent of(Type type, UserDTO user) {
+        return new UserChangedEvent(
+                UUID.randomUUID(),
+                type,
+                user.getId(),
+                user.getVersion(),
+                Instant.now(),
+                user.getUsername(),
+                user.getFullName(),
+                user.getEmail(),
+                user.getPhone(),
+                new HashSet<>(user.getRoles()),
+                user.isActive(),
+                user.getCreatedAt(),
+                user.getUpdatedAt()
+        );
+    }
+}
@@ -0,0 +1,64 @@
+package com.rgbnet.provider.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rgbnet.provider.service.UserDirectory;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+// Alimenta o UserDirectory a partir do tópico compactado de eventos de usuário. Lê desde o início, de modo que a
+// compactação do tópico faz as vezes de snapshot; o diretório passa a responder consultas quando alcança os
+// offsets finais observados na inicialização, e depois segue acompanhando o tópico.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "directory.enabled", havingValue = "true")
+public class UserDirectoryProjection extends UserEventProjection {
+
+    private final UserDirectory userDirectory;
+
+    private Map<TopicPartition, Long> endOffsets = Map.of();
+
+    public UserDirectoryProjection(
+            ConsumerFactory<String, String> consumerFactory,
+            UserDirectory userDirectory,
+            ObjectMapper objectMapper,
+            @Value("${directory.topic:user-events}") String topic,
+            @Value("${directory.poll-timeout:1s}") Duration pollTimeout
+    ) {
+        super(consumerFactory, objectMapper, "user-directory", topic, pollTimeout);
+        this.userDirectory = userDirectory;
+    }
+
+    @Override
+    protected void onAssigned(Consumer<String, String> consumer, List<TopicPartition> partitions) {
+        consumer.seekToBeginning(partitions);
+        endOffsets = consumer.endOffsets(partitions);
+        log.info("Reconstruindo diretório de usuários a partir de {} ({} partições)", topic, partitions.size());
+    }
+
+    @Override
+    protected void apply(UserChangedEvent event) {
+        userDirectory.apply(event);
+    }
+
+    @Override
+    protected void afterPoll(Consumer<String, String> consumer) {
+        if (!userDirectory.isReady() && caughtUp(consumer)) {
+            userDirectory.markReady();
+            log.info("Diretório de usuários pronto com {} usuários", userDirectory.size());
+        }
+    }
+
+    private boolean caughtUp(Consumer<String, String> consumer) {
+        return endOffsets.entrySet().stream()
+                .allMatch(end -> consumer.position(end.getKey()) >= end.getValue());
+    }
+}
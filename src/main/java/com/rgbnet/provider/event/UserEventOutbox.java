@@ -0,0 +1,57 @@
+package com.rgbnet.provider.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Grava eventos na outbox dentro da transação que alterou o usuário: o evento existe se, e somente se,
+// a alteração for confirmada. A publicação no Kafka fica a cargo do UserOutboxRelay; os eventos também são
+// publicados localmente para listeners de commit (@TransactionalEventListener) deste nó.
+@Component
+@RequiredArgsConstructor
+public class UserEventOutbox {
+
+    private static final String INSERT_EVENT =
+            "INSERT INTO user_outbox (aggregate_id, event_type, payload, created_at) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(UserChangedEvent event) {
+        appendAll(List.of(event));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(List<UserChangedEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(events.size());
+        for (UserChangedEvent event : events) {
+            rows.add(new Object[]{event.userId(), event.type().name(), serialize(event), now});
+        }
+        jdbcTemplate.batchUpdate(INSERT_EVENT, rows);
+        events.forEach(applicationEventPublisher::publishEvent);
+    }
+
+    private String serialize(UserChangedEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar evento do usuário " + event.userId(), e);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.rgbnet.provider.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.errors.WakeupException;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.core.ConsumerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+
+// Base dos modelos locais alimentados pelo tópico compactado de eventos de usuário. Cada nó lê todas as partições
+// numa thread própria (assign, sem grupo de consumo nem commit de offsets), então todo nó vê as alterações feitas
+// em qualquer outro; a subclasse decide onde começar a leitura e o que fazer com cada evento.
+@Slf4j
+public abstract class UserEventProjection implements SmartLifecycle {
+
+    private final ConsumerFactory<String, String> consumerFactory;
+    private final ObjectMapper objectMapper;
+    private final String name;
+    protected final String topic;
+    private final Duration pollTimeout;
+
+    private volatile boolean running;
+    private volatile Consumer<String, String> consumer;
+    private Thread thread;
+
+    protected UserEventProjection(ConsumerFactory<String, String> consumerFactory, ObjectMapper objectMapper,
+                                  String name, String topic, Duration pollTimeout) {
+        this.consumerFactory = consumerFactory;
+        this.objectMapper = objectMapper;
+        this.name = name;
+        this.topic = topic;
+        this.pollTimeout = pollTimeout;
+    }
+
+    // Posiciona o consumidor recém-atribuído às partições do tópico
+    protected abstract void onAssigned(Consumer<String, String> consumer, List<TopicPartition> partitions);
+
+    protected abstract void apply(UserChangedEvent event);
+
+    // Chamado depois de cada poll, com ou sem registros
+    protected void afterPoll(Consumer<String, String> consumer) {
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Consumer<String, String> current = consumer;
+        if (current != null) {
+            current.wakeup();
+        }
+        try {
+            thread.join(pollTimeout.multipliedBy(2).toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        try (Consumer<String, String> projectionConsumer =
+                     consumerFactory.createConsumer(null, name, null, overrides)) {
+            consumer = projectionConsumer;
+            List<TopicPartition> partitions = awaitPartitions(projectionConsumer);
+            if (partitions.isEmpty()) {
+                return;
+            }
+            projectionConsumer.assign(partitions);
+            onAssigned(projectionConsumer, partitions);
+
+            while (running) {
+                for (ConsumerRecord<String, String> consumerRecord : projectionConsumer.poll(pollTimeout)) {
+                    dispatch(consumerRecord);
+                }
+                afterPoll(projectionConsumer);
+            }
+        } catch (WakeupException e) {
+            if (running) {
+                throw e;
+            }
+        } catch (RuntimeException e) {
+            log.error("Consumidor {} do tópico {} interrompido", name, topic, e);
+        } finally {
+            consumer = null;
+        }
+    }
+
+    private List<TopicPartition> awaitPartitions(Consumer<String, String> projectionConsumer) {
+        while (running) {
+            try {
+                List<PartitionInfo> infos = projectionConsumer.partitionsFor(topic);
+                if (infos != null && !infos.isEmpty()) {
+                    return infos.stream().map(info -> new TopicPartition(info.topic(), info.partition())).toList();
+                }
+                log.info("Tópico {} ainda não existe, aguardando", topic);
+            } catch (TimeoutException e) {
+                log.warn("Broker indisponível ao consultar partições de {}, nova tentativa", topic);
+            }
+            try {
+                Thread.sleep(pollTimeout.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return List.of();
+    }
+
+    private void dispatch(ConsumerRecord<String, String> consumerRecord) {
+        try {
+            apply(objectMapper.readValue(consumerRecord.value(), UserChangedEvent.class));
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.warn("Evento ilegível em {}-{}@{}: {}", consumerRecord.topic(), consumerRecord.partition(),
+                    consumerRecord.offset(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.rgbnet.provider.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Drena a outbox em lotes para o tópico de eventos de usuário, com o id do usuário como chave.
+// Cada lote passa por três etapas, e nenhuma transação nem conexão fica aberta esperando o broker:
+// uma transação curta reserva o início da outbox (claimed_until), o envio roda fora dela e outra transação
+// curta remove as linhas confirmadas. Enquanto a reserva vale, outra instância do relay não avança sobre os
+// eventos seguintes, preservando a ordem por usuário. A entrega é at-least-once: se a remoção falhar ou a
+// reserva expirar antes dela, o lote é republicado.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true")
+public class UserOutboxRelay {
+
+    // O FOR UPDATE só dura a transação da reserva: serializa duas instâncias reservando ao mesmo tempo
+    private static final String SELECT_BATCH = """
+            SELECT id, aggregate_id, payload, created_at, claimed_until FROM user_outbox
+            ORDER BY id
+            LIMIT ?
+            FOR UPDATE
+            """;
+
+    private static final String CLAIM_BATCH = "UPDATE user_outbox SET claimed_until = :claimedUntil WHERE id IN (:ids)";
+
+    private record Entry(long id, String key, String payload, LocalDateTime createdAt, LocalDateTime claimedUntil) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final String topic;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final Duration claimTimeout;
+
+    private final Counter published;
+    private final Counter failures;
+    private final Timer lag;
+    private final Timer batchDuration;
+    private final DistributionSummary batchSizes;
+
+    public UserOutboxRelay(
+            JdbcTemplate jdbcTemplate,
+            NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            KafkaTemplate<String, String> kafkaTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${outbox.relay.topic:user-events}") String topic,
+            @Value("${outbox.relay.batch-size:500}") int batchSize,
+            @Value("${outbox.relay.send-timeout:30s}") Duration sendTimeout,
+            @Value("${outbox.relay.claim-timeout:60s}") Duration claimTimeout
+    ) {
+        // Uma reserva que expira durante o envio deixaria outra instância republicar o lote em paralelo
+        if (claimTimeout.compareTo(sendTimeout) <= 0) {
+            throw new IllegalStateException("outbox.relay.claim-timeout (" + claimTimeout
+                    + ") deve ser maior que outbox.relay.send-timeout (" + sendTimeout + ")");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.kafkaTemplate = kafkaTemplate;
+        this.topic = topic;
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+        this.claimTimeout = claimTimeout;
+        this.published = Counter.builder("outbox.relay.published")
+                .description("Eventos de usuário publicados no Kafka")
+                .tag("topic", topic)
+                .register(meterRegistry);
+        this.failures = Counter.builder("outbox.relay.failures")
+                .description("Ciclos do relay interrompidos por falha no envio ou no banco")
+                .tag("topic", topic)
+                .register(meterRegistry);
+        this.lag = Timer.builder("outbox.relay.lag")
+                .description("Tempo entre a gravação do evento na outbox e a confirmação do broker")
+                .tag("topic", topic)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchDuration = Timer.builder("outbox.relay.batch.duration")
+                .description("Tempo para publicar e remover um lote já reservado da outbox")
+                .tag("topic", topic)
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("outbox.relay.batch.size")
+                .description("Eventos por lote publicado")
+                .tag("topic", topic)
+                .register(meterRegistry);
+    }
+
+    // Continua drenando enquanto os lotes vierem cheios; o intervalo só vale quando a outbox esvazia
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval-ms:200}")
+    public void relay() {
+        try {
+            int sent;
+            do {
+                sent = relayBatch();
+            } while (sent == batchSize);
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Falha ao publicar eventos da outbox, nova tentativa no próximo ciclo: {}", e.getMessage());
+        }
+    }
+
+    int relayBatch() {
+        List<Entry> entries = claim();
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = entries.stream().map(Entry::id).toList();
+
+        long start = System.nanoTime();
+        try {
+            List<CompletableFuture<?>> futures = new ArrayList<>(entries.size());
+            for (Entry entry : entries) {
+                futures.add(kafkaTemplate.send(topic, entry.key(), entry.payload()));
+            }
+            await(CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)));
+        } catch (RuntimeException e) {
+            release(ids);
+            throw e;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> namedParameterJdbcTemplate.update(
+                "DELETE FROM user_outbox WHERE id IN (:ids)", Map.of("ids", ids)));
+        recordMetrics(entries, System.nanoTime() - start);
+        return entries.size();
+    }
+
+    // Reserva os primeiros eventos da outbox; vazio quando não há eventos ou quando o início ainda está
+    // reservado por outra instância (avançar sobre os eventos seguintes inverteria a ordem por usuário)
+    private List<Entry> claim() {
+        List<Entry> claimed = transactionTemplate.execute(status -> {
+            List<Entry> entries = jdbcTemplate.query(SELECT_BATCH, (rs, rowNum) -> new Entry(
+                    rs.getLong("id"),
+                    rs.getString("aggregate_id"),
+                    rs.getString("payload"),
+                    rs.getTimestamp("created_at").toLocalDateTime(),
+                    toLocalDateTime(rs.getTimestamp("claimed_until"))), batchSize);
+            LocalDateTime now = LocalDateTime.now();
+            if (entries.stream().anyMatch(entry -> entry.claimedUntil() != null && entry.claimedUntil().isAfter(now))) {
+                return List.of();
+            }
+            if (!entries.isEmpty()) {
+                namedParameterJdbcTemplate.update(CLAIM_BATCH, Map.of(
+                        "claimedUntil", Timestamp.valueOf(now.plus(claimTimeout)),
+                        "ids", entries.stream().map(Entry::id).toList()));
+            }
+            return entries;
+        });
+        return claimed != null ? claimed : List.of();
+    }
+
+    // Devolve o lote que falhou para o próximo ciclo, sem esperar a reserva expirar
+    private void release(List<Long> ids) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> namedParameterJdbcTemplate.update(
+                    "UPDATE user_outbox SET claimed_until = NULL WHERE id IN (:ids)", Map.of("ids", ids)));
+        } catch (RuntimeException e) {
+            log.warn("Falha ao liberar a reserva da outbox, o lote volta quando ela expirar: {}", e.getMessage());
+        }
+    }
+
+    private void await(CompletableFuture<Void> sends) {
+        try {
+            sends.get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KafkaException("Publicação da outbox interrompida", e);
+        } catch (ExecutionException e) {
+            throw new KafkaException("Falha ao publicar eventos da outbox", e.getCause());
+        } catch (TimeoutException e) {
+            throw new KafkaException("Tempo esgotado aguardando confirmação do broker", e);
+        }
+    }
+
+    private void recordMetrics(List<Entry> entries, long elapsedNanos) {
+        published.increment(entries.size());
+        batchSizes.record(entries.size());
+        batchDuration.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        LocalDateTime now = LocalDateTime.now();
+        for (Entry entry : entries) {
+            lag.record(Duration.between(entry.createdAt(), now));
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
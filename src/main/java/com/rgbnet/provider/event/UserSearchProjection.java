@@ -0,0 +1,51 @@
+package com.rgbnet.provider.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rgbnet.provider.service.UserSearchService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+// Leva ao índice de busca deste nó as alterações feitas nos outros, que de outro modo só apareceriam na próxima
+// recarga completa. Como os filtros de disponibilidade, começa no fim do tópico e recarrega users já com a
+// posição fixada; a regra de versão descarta o que chegar fora de ordem.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "search.feed.enabled", havingValue = "true")
+public class UserSearchProjection extends UserEventProjection {
+
+    private final UserSearchService userSearchService;
+
+    public UserSearchProjection(
+            ConsumerFactory<String, String> consumerFactory,
+            UserSearchService userSearchService,
+            ObjectMapper objectMapper,
+            @Value("${search.feed.topic:user-events}") String topic,
+            @Value("${search.feed.poll-timeout:1s}") Duration pollTimeout
+    ) {
+        super(consumerFactory, objectMapper, "user-search", topic, pollTimeout);
+        this.userSearchService = userSearchService;
+    }
+
+    @Override
+    protected void onAssigned(Consumer<String, String> consumer, List<TopicPartition> partitions) {
+        consumer.seekToEnd(partitions);
+        // seekToEnd é preguiçoso; position resolve os offsets antes da leitura de users
+        partitions.forEach(consumer::position);
+        log.info("Acompanhando alterações de outros nós no índice de busca a partir de {} ({} partições)",
+                topic, partitions.size());
+        userSearchService.rebuild();
+    }
+
+    @Override
+    protected void apply(UserChangedEvent event) {
+        userSearchService.apply(event);
+    }
+}
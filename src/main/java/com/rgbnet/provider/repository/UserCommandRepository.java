@@ -0,0 +1,130 @@
+package com.rgbnet.provider.repository;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+// Modelo de escrita de usuários: cada alteração é um único UPDATE nativo com a checagem de versão no WHERE,
+// sem carregar a entidade (nem a coleção EAGER de papéis) e sem o dirty checking do contexto de persistência.
+// Os métodos devolvem o número de linhas alteradas; 0 significa usuário inexistente ou versão divergente.
+// Auditoria e @Version não passam por essas instruções: updatedAt e version são gravados aqui.
+// No cache de segundo nível, um UPDATE em massa declarado sobre users ou user_roles invalidaria as regiões
+// inteiras (o Hibernate não sabe quais linhas mudaram), e com leituras em réplicas cada falta seguinte poderia ser
+// recarregada de uma réplica atrasada. As instruções declaram um espaço de consulta sem tabela mapeada e só o
+// usuário alterado sai do cache, antes e depois do commit.
+@Repository
+@Timed("user.command.repository")
+@Transactional(propagation = Propagation.MANDATORY)
+public class UserCommandRepository {
+
+    // Nenhuma entidade ou coleção mapeia essa tabela, então nenhuma região é invalidada por inteiro
+    private static final String QUERY_SPACE = "user_command";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final UserSecondLevelCache userSecondLevelCache;
+
+    public UserCommandRepository(UserSecondLevelCache userSecondLevelCache) {
+        this.userSecondLevelCache = userSecondLevelCache;
+    }
+
+    public int deactivate(UUID id, Long expectedVersion, LocalDateTime now) {
+        int updated = versioned("""
+                UPDATE users
+                SET active = false, version = version + 1, updated_at = :now
+                WHERE id = :id
+                """, expectedVersion)
+                .setParameter("id", id)
+                .setParameter("now", now)
+                .executeUpdate();
+        return evicted(id, updated);
+    }
+
+    // Campos nulos ficam como estão (PATCH); passwordHash já vem codificado
+    public int patch(UUID id, Long expectedVersion, String fullName, String email, String phone,
+                     String passwordHash, LocalDateTime now) {
+        // Tipo explícito: um parâmetro nulo sem tipo não é aceito pelo PostgreSQL dentro do coalesce
+        int updated = versioned("""
+                UPDATE users
+                SET full_name = coalesce(:fullName, full_name),
+                    email = coalesce(:email, email),
+                    phone = coalesce(:phone, phone),
+                    password = coalesce(:password, password),
+                    version = version + 1,
+                    updated_at = :now
+                WHERE id = :id
+                """, expectedVersion)
+                .setParameter("id", id)
+                .setParameter("fullName", fullName, StandardBasicTypes.STRING)
+                .setParameter("email", email, StandardBasicTypes.STRING)
+                .setParameter("phone", phone, StandardBasicTypes.STRING)
+                .setParameter("password", passwordHash, StandardBasicTypes.STRING)
+                .setParameter("now", now)
+                .executeUpdate();
+        return evicted(id, updated);
+    }
+
+    // Diferença de conjuntos contra user_roles: remove só os papéis que saíram e insere só os que entraram.
+    // Chamado depois do UPDATE em users, que já segura o lock da linha do usuário.
+    public void replaceRoles(UUID id, Set<String> roles) {
+        @SuppressWarnings("unchecked")
+        List<String> current = entityManager.createNativeQuery("SELECT role FROM user_roles WHERE user_id = :id")
+                .setParameter("id", id)
+                .getResultList();
+
+        Set<String> removed = new HashSet<>(current);
+        removed.removeAll(roles);
+        if (!removed.isEmpty()) {
+            nativeUpdate("DELETE FROM user_roles WHERE user_id = :id AND role IN (:roles)")
+                    .setParameter("id", id)
+                    .setParameter("roles", removed)
+                    .executeUpdate();
+        }
+
+        Set<String> added = new HashSet<>(roles);
+        current.forEach(added::remove);
+        for (String role : added) {
+            nativeUpdate("INSERT INTO user_roles (user_id, role) VALUES (:id, :role)")
+                    .setParameter("id", id)
+                    .setParameter("role", role)
+                    .executeUpdate();
+        }
+        if (!removed.isEmpty() || !added.isEmpty()) {
+            userSecondLevelCache.evictAfterCommit(id);
+        }
+    }
+
+    private NativeQuery<?> versioned(String update, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return nativeUpdate(update);
+        }
+        return nativeUpdate(update + " AND version = :version")
+                .setParameter("version", expectedVersion);
+    }
+
+    // Sem espaço de consulta declarado, o Hibernate invalidaria todas as regiões do cache de segundo nível
+    private NativeQuery<?> nativeUpdate(String sql) {
+        return entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(QUERY_SPACE);
+    }
+
+    private int evicted(UUID id, int updated) {
+        if (updated > 0) {
+            userSecondLevelCache.evictAfterCommit(id);
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,11 @@
+package com.rgbnet.provider.repository;
+
+import com.rgbnet.provider.domain.User;
+
+import java.util.Optional;
+
+// Fragmento do UserRepository: substitui a consulta derivada de findByUsername pela busca por natural id
+public interface UserNaturalIdRepository {
+
+    Optional<User> findByUsername(String username);
+}
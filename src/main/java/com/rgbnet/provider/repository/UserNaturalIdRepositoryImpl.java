@@ -0,0 +1,25 @@
+package com.rgbnet.provider.repository;
+
+import com.rgbnet.provider.domain.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+// Com o cache de segundo nível ligado, username -> id sai da região de natural id e o usuário da região da
+// entidade, sem ir ao banco; sem cache, é um SELECT pelo username como a consulta derivada
+@Transactional(readOnly = true)
+public class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(username);
+    }
+}
@@ -0,0 +1,161 @@
+package com.rgbnet.provider.repository;
+
+import com.rgbnet.provider.dto.UserDTO;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+// Modelo de leitura de usuários: projeções por construtor e papéis de uma página inteira em uma única
+// consulta (user_id IN ...), evitando o N+1 da coleção EAGER de User
+@Repository
+@Timed("user.query.repository")
+@Transactional(readOnly = true)
+public class UserQueryRepository {
+
+    private static final String SELECT_ROW = """
+            select new com.rgbnet.provider.repository.UserRow(
+                u.id, u.username, u.fullName, u.email, u.phone, u.createdAt, u.updatedAt, u.active, u.version)
+            from User u
+            """;
+
+    private static final String ORDER_BY_KEYSET = " order by u.createdAt, u.id";
+
+    // Mantém o IN abaixo do limite de parâmetros dos drivers mesmo em listagens completas
+    private static final int ROLES_BATCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Um usuário só: colunas e papéis em uma única consulta, uma linha por papel
+    public Optional<UserDTO> findById(UUID id) {
+        return findOne("u.id = :value", id);
+    }
+
+    // Fallback das buscas por username e e-mail quando o diretório em memória ainda não tem o usuário:
+    // mesma projeção do findById, sem carregar a entidade (senha, coleção EAGER) no contexto de persistência
+    public Optional<UserDTO> findByUsername(String username) {
+        return findOne("u.username = :value", username);
+    }
+
+    public Optional<UserDTO> findByEmail(String email) {
+        return findOne("u.email = :value", email);
+    }
+
+    // Só a coluna version: atende revalidações (If-None-Match) sem montar o usuário nem buscar os papéis
+    public Optional<Long> findVersion(UUID id) {
+        return entityManager.createQuery("select u.version from User u where u.id = :id", Long.class)
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst();
+    }
+
+    public List<UserDTO> findAll() {
+        return toDTOs(entityManager.createQuery(SELECT_ROW + ORDER_BY_KEYSET, UserRow.class).getResultList());
+    }
+
+    public List<UserDTO> findFirstPage(Boolean active, int limit) {
+        TypedQuery<UserRow> query = entityManager.createQuery(
+                SELECT_ROW + " where (:active is null or u.active = :active)" + ORDER_BY_KEYSET, UserRow.class);
+        return toDTOs(query
+                .setParameter("active", active)
+                .setMaxResults(limit)
+                .getResultList());
+    }
+
+    public List<UserDTO> findPageAfter(LocalDateTime createdAt, UUID id, Boolean active, int limit) {
+        TypedQuery<UserRow> query = entityManager.createQuery(SELECT_ROW + """
+                where (:active is null or u.active = :active)
+                  and (u.createdAt > :createdAt or (u.createdAt = :createdAt and u.id > :id))
+                """ + ORDER_BY_KEYSET, UserRow.class);
+        return toDTOs(query
+                .setParameter("active", active)
+                .setParameter("createdAt", createdAt)
+                .setParameter("id", id)
+                .setMaxResults(limit)
+                .getResultList());
+    }
+
+    public Map<UUID, Set<String>> findRoles(Collection<UUID> userIds) {
+        Map<UUID, Set<String>> roles = new HashMap<>();
+        List<UUID> ids = List.copyOf(userIds);
+        for (int from = 0; from < ids.size(); from += ROLES_BATCH_SIZE) {
+            List<UUID> batch = ids.subList(from, Math.min(from + ROLES_BATCH_SIZE, ids.size()));
+            entityManager.createQuery("select u.id, r from User u join u.roles r where u.id in :ids", Object[].class)
+                    .setParameter("ids", batch)
+                    .getResultList()
+                    .forEach(row -> roles.computeIfAbsent((UUID) row[0], key -> new HashSet<>()).add((String) row[1]));
+        }
+        return roles;
+    }
+
+    private Optional<UserDTO> findOne(String condition, Object value) {
+        List<Object[]> rows = entityManager.createQuery("""
+                        select u.id, u.username, u.fullName, u.email, u.phone, u.createdAt, u.updatedAt, u.active,
+                               u.version, r
+                        from User u left join u.roles r
+                        where
+                        """ + condition, Object[].class)
+                .setParameter("value", value)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Set<String> roles = new HashSet<>();
+        for (Object[] row : rows) {
+            if (row[9] != null) {
+                roles.add((String) row[9]);
+            }
+        }
+        Object[] user = rows.get(0);
+        return Optional.of(UserDTO.builder()
+                .id((UUID) user[0])
+                .username((String) user[1])
+                .fullName((String) user[2])
+                .email((String) user[3])
+                .phone((String) user[4])
+                .roles(roles)
+                .createdAt((LocalDateTime) user[5])
+                .updatedAt((LocalDateTime) user[6])
+                .active((Boolean) user[7])
+                .version((Long) user[8])
+                .build());
+    }
+
+    private List<UserDTO> toDTOs(List<UserRow> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, Set<String>> roles = findRoles(rows.stream().map(UserRow::id).toList());
+        List<UserDTO> users = new ArrayList<>(rows.size());
+        for (UserRow row : rows) {
+            users.add(UserDTO.builder()
+                    .id(row.id())
+                    .username(row.username())
+                    .fullName(row.fullName())
+                    .email(row.email())
+                    .phone(row.phone())
+                    .roles(roles.getOrDefault(row.id(), new HashSet<>()))
+                    .createdAt(row.createdAt())
+                    .updatedAt(row.updatedAt())
+                    .active(row.active())
+                    .version(row.version())
+                    .build());
+        }
+        return users;
+    }
+}
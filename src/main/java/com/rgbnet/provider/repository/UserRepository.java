@@ -2,16 +2,17 @@ package com.rgbnet.provider.repository;
 
 import com.rgbnet.provider.domain.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+// findByUsername vem de UserNaturalIdRepository (natural id com cache de segundo nível)
 @Repository
-public interface UserRepository extends JpaRepository<User, UUID> {
-    
-    Optional<User> findByUsername(String username);
+public interface UserRepository extends JpaRepository<User, UUID>, UserNaturalIdRepository {
     
     Optional<User> findByEmail(String email);
     
@@ -19,5 +20,12 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     
     boolean existsByEmail(String email);
     
+    // Recebem o valor já normalizado (trim e minúsculas); atendidas pelos índices em lower() da V5
+    @Query("select case when count(u) > 0 then true else false end from User u where lower(u.username) = :username")
+    boolean existsByNormalizedUsername(@Param("username") String username);
+    
+    @Query("select case when count(u) > 0 then true else false end from User u where lower(u.email) = :email")
+    boolean existsByNormalizedEmail(@Param("email") String email);
+    
     List<User> findByActiveTrue();
 } 
\ No newline at end of file
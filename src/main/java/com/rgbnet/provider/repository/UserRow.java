@@ -0,0 +1,18 @@
+package com.rgbnet.provider.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Projeção das colunas de leitura de users, sem senha e sem passar pelo contexto de persistência
+public record UserRow(
+        UUID id,
+        String username,
+        String fullName,
+        String email,
+        String phone,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        boolean active,
+        Long version
+) {
+}
@@ -0,0 +1,44 @@
+package com.rgbnet.provider.repository;
+
+import com.rgbnet.provider.domain.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+// Remoção por id das entradas de um usuário no cache de segundo nível (entidade e papéis). As regiões são locais
+// a cada JVM: as escritas feitas fora do ciclo da entidade removem aqui as do próprio nó, e o UserCacheProjection
+// remove as dos outros nós a partir do tópico de eventos. Com o cache desligado, as remoções não fazem nada.
+@Component
+public class UserSecondLevelCache {
+
+    private static final String ROLES_ROLE = User.class.getName() + ".roles";
+
+    private final Cache cache;
+
+    public UserSecondLevelCache(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    public void evict(UUID id) {
+        cache.evictEntityData(User.class, id);
+        cache.evictCollectionData(ROLES_ROLE, id);
+    }
+
+    // Remove de novo após o commit para que uma leitura concorrente não recoloque o estado anterior
+    public void evictAfterCommit(UUID id) {
+        evict(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(id);
+                }
+            });
+        }
+    }
+}
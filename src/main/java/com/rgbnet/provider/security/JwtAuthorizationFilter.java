@@ -1,10 +1,12 @@
 package com.rgbnet.provider.security;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -15,13 +17,34 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
+// Cada etapa da autorização tem seu timer (auth.filter.stage, tag stage): leitura/verificação do token,
+// resolução do usuário e montagem do contexto de segurança. Desligável com management.metrics.enable.auth=false.
 @Component
-@RequiredArgsConstructor
 public class JwtAuthorizationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
     private final UserDetailsService userDetailsService;
+    private final RevokedAccessTokens revokedAccessTokens;
+
+    private final Timer parseTimer;
+    private final Timer resolveTimer;
+    private final Timer contextTimer;
+
+    public JwtAuthorizationFilter(
+            JwtTokenProvider jwtTokenProvider,
+            UserDetailsService userDetailsService,
+            RevokedAccessTokens revokedAccessTokens,
+            MeterRegistry meterRegistry
+    ) {
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.userDetailsService = userDetailsService;
+        this.revokedAccessTokens = revokedAccessTokens;
+        this.parseTimer = stage(meterRegistry, "parse");
+        this.resolveTimer = stage(meterRegistry, "resolve");
+        this.contextTimer = stage(meterRegistry, "context");
+    }
 
     @Override
     protected void doFilterInternal(
@@ -37,12 +60,33 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
         }
         
         final String jwt = authHeader.substring(7);
-        final String username = jwtTokenProvider.extractUsername(jwt);
+        long start = System.nanoTime();
+        final Claims claims;
+        final boolean revoked;
+        try {
+            claims = jwtTokenProvider.verify(jwt);
+            revoked = revokedAccessTokens.isRevoked(claims.getId());
+        } finally {
+            start = record(parseTimer, start);
+        }
+        // Token revogado segue sem autenticação, como se não tivesse sido enviado
+        if (revoked) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        final String username = claims.getSubject();
         
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            UserDetails userDetails;
+            try {
+                userDetails = jwtTokenProvider.resolvePrincipal(claims)
+                        .orElseGet(() -> this.userDetailsService.loadUserByUsername(username));
+            } finally {
+                start = record(resolveTimer, start);
+            }
             
-            if (jwtTokenProvider.isTokenValid(jwt, userDetails)) {
+            if (jwtTokenProvider.isTokenValid(claims, userDetails)
+                    && userDetails.isEnabled() && userDetails.isAccountNonLocked()) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -51,8 +95,23 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
+            record(contextTimer, start);
         }
         
         filterChain.doFilter(request, response);
     }
+
+    private static Timer stage(MeterRegistry registry, String stage) {
+        return Timer.builder("auth.filter.stage")
+                .description("Tempo de cada etapa da autorização por JWT")
+                .tag("stage", stage)
+                .register(registry);
+    }
+
+    // Registra o tempo decorrido desde start e devolve o instante atual, início da próxima etapa
+    private static long record(Timer timer, long start) {
+        long now = System.nanoTime();
+        timer.record(now - start, TimeUnit.NANOSECONDS);
+        return now;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,276 @@
+package com.rgbnet.provider.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Chaves ES256 (P-256) usadas para assinar e verificar os JWTs, identificadas pelo "kid" do header.
+// Cada arquivo <kid>.pem do diretório jwt.keys.directory traz um bloco PUBLIC KEY e, opcionalmente, um
+// PRIVATE KEY (PKCS#8); sem a privada a chave só verifica (ex.: chave aposentada ainda dentro do prazo dos tokens).
+// Gerar uma chave:
+//   openssl ecparam -name prime256v1 -genkey -noout | openssl pkcs8 -topk8 -nocrypt > 2026-10-17.pem
+//   openssl ec -in 2026-10-17.pem -pubout >> 2026-10-17.pem
+// O diretório é relido periodicamente. Uma chave nova entra no JWKS na hora, mas só passa a assinar depois de
+// jwt.keys.activation-delay, para que os outros módulos já a tenham em cache; entre as elegíveis assina a de
+// maior kid. Apagar o arquivo retira a chave: tokens assinados com ela deixam de ser aceitos.
+// Sem diretório configurado é gerado um par efêmero, válido só para esta instância e até o restart: tokens emitidos
+// por uma réplica não passam nas outras. Só é aceito com jwt.keys.ephemeral-allowed (perfis dev e h2 e testes);
+// fora disso a aplicação não sobe.
+@Slf4j
+@Component
+public class JwtKeyRing {
+
+    private static final Pattern PEM_BLOCK = Pattern.compile(
+            "-----BEGIN ([A-Z ]+)-----([A-Za-z0-9+/=\\s]+)-----END \\1-----");
+    private static final String PEM_SUFFIX = ".pem";
+    private static final int P256_COORDINATE_BYTES = 32;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    public record SigningKey(String kid, PrivateKey privateKey) {
+    }
+
+    // JWKS já serializado, com ETag derivado do conteúdo
+    public record Jwks(String json, String etag) {
+    }
+
+    private record LoadedKey(String kid, PrivateKey privateKey, PublicKey publicKey, Instant publishedAt) {
+    }
+
+    private record KeySet(Map<Path, FileTime> sources, Map<String, LoadedKey> keys, SigningKey active, Jwks jwks) {
+    }
+
+    private final Path directory;
+    private final Duration activationDelay;
+
+    private volatile KeySet keySet;
+    private final Counter reloadFailures;
+
+    public JwtKeyRing(
+            MeterRegistry meterRegistry,
+            @Value("${jwt.keys.directory:}") String directory,
+            @Value("${jwt.keys.activation-delay:10m}") Duration activationDelay,
+            @Value("${jwt.keys.ephemeral-allowed:false}") boolean ephemeralAllowed
+    ) {
+        this.directory = directory == null || directory.isBlank() ? null : Path.of(directory);
+        this.activationDelay = activationDelay;
+        if (this.directory == null && !ephemeralAllowed) {
+            throw new IllegalStateException("jwt.keys.directory não configurado: sem ele cada instância assinaria com "
+                    + "uma chave própria; use jwt.keys.ephemeral-allowed=true só em desenvolvimento");
+        }
+        try {
+            this.keySet = this.directory != null ? load(null) : ephemeral();
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Falha ao carregar as chaves JWT de " + directory, e);
+        }
+        log.info("Chaves JWT carregadas: {} (assinando com kid {})", keySet.keys().keySet(), keySet.active().kid());
+        Gauge.builder("jwt.keys", this, ring -> ring.keySet.keys().size())
+                .description("Chaves disponíveis para verificação de JWT")
+                .register(meterRegistry);
+        this.reloadFailures = Counter.builder("jwt.keys.reload.failures")
+                .description("Recargas do diretório de chaves JWT que falharam")
+                .register(meterRegistry);
+    }
+
+    public SigningKey signingKey() {
+        return keySet.active();
+    }
+
+    // Chave pública já decodificada para o kid, ou null se o kid é desconhecido ou foi retirado
+    public PublicKey verificationKey(String kid) {
+        LoadedKey key = keySet.keys().get(kid);
+        return key != null ? key.publicKey() : null;
+    }
+
+    public Jwks jwks() {
+        return keySet.jwks();
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.keys.reload-interval-ms:30000}")
+    public void reload() {
+        if (directory == null) {
+            return;
+        }
+        KeySet previous = keySet;
+        try {
+            KeySet next = load(previous);
+            if (next != previous) {
+                keySet = next;
+                log.info("Chaves JWT recarregadas: {} (assinando com kid {})",
+                        next.keys().keySet(), next.active().kid());
+            }
+        } catch (IOException | GeneralSecurityException | IllegalStateException e) {
+            // Mantém o conjunto anterior: um arquivo com problema não derruba a emissão de tokens
+            log.error("Falha ao recarregar as chaves JWT de {}: {}", directory, e.getMessage());
+            reloadFailures.increment();
+        }
+    }
+
+    // Reaproveita as chaves já decodificadas quando nenhum arquivo mudou; só a escolha da ativa é refeita
+    private KeySet load(KeySet previous) throws IOException, GeneralSecurityException {
+        Map<Path, FileTime> sources = new HashMap<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(path -> path.getFileName().toString().endsWith(PEM_SUFFIX)).toList()) {
+                sources.put(file, Files.getLastModifiedTime(file));
+            }
+        }
+
+        Map<String, LoadedKey> keys;
+        if (previous != null && previous.sources().equals(sources)) {
+            keys = previous.keys();
+        } else {
+            keys = new LinkedHashMap<>();
+            for (Map.Entry<Path, FileTime> source : sources.entrySet()) {
+                LoadedKey key = parse(source.getKey(), source.getValue().toInstant());
+                keys.put(key.kid(), key);
+            }
+        }
+
+        SigningKey active = selectActive(keys);
+        if (previous != null && keys == previous.keys() && active.kid().equals(previous.active().kid())) {
+            return previous;
+        }
+        return new KeySet(Map.copyOf(sources), Map.copyOf(keys), active, toJwks(keys));
+    }
+
+    private SigningKey selectActive(Map<String, LoadedKey> keys) {
+        Instant eligibleBefore = Instant.now().minus(activationDelay);
+        List<LoadedKey> signing = keys.values().stream()
+                .filter(key -> key.privateKey() != null)
+                .sorted(Comparator.comparing(LoadedKey::kid).reversed())
+                .toList();
+        if (signing.isEmpty()) {
+            throw new IllegalStateException("Nenhuma chave privada em " + directory);
+        }
+        // Na primeira chave de uma instalação nova não há alternativa além de usá-la já publicada
+        LoadedKey active = signing.stream()
+                .filter(key -> !key.publishedAt().isAfter(eligibleBefore))
+                .findFirst()
+                .orElse(signing.get(signing.size() - 1));
+        return new SigningKey(active.kid(), active.privateKey());
+    }
+
+    private static LoadedKey parse(Path file, Instant publishedAt) throws IOException, GeneralSecurityException {
+        String fileName = file.getFileName().toString();
+        String kid = fileName.substring(0, fileName.length() - PEM_SUFFIX.length());
+        KeyFactory keyFactory = KeyFactory.getInstance("EC");
+        PrivateKey privateKey = null;
+        PublicKey publicKey = null;
+
+        Matcher matcher = PEM_BLOCK.matcher(Files.readString(file, StandardCharsets.US_ASCII));
+        while (matcher.find()) {
+            byte[] der = Base64.getMimeDecoder().decode(matcher.group(2));
+            switch (matcher.group(1)) {
+                case "PRIVATE KEY" -> privateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(der));
+                case "PUBLIC KEY" -> publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(der));
+                default -> throw new IllegalStateException("Bloco " + matcher.group(1) + " não suportado em "
+                        + file + " (use PKCS#8 e SubjectPublicKeyInfo)");
+            }
+        }
+
+        if (!(publicKey instanceof ECPublicKey ecPublicKey)
+                || ecPublicKey.getParams().getCurve().getField().getFieldSize() != 256) {
+            throw new IllegalStateException("Chave pública P-256 ausente em " + file);
+        }
+        if (privateKey != null && !matches(privateKey, publicKey)) {
+            throw new IllegalStateException("Chaves privada e pública não formam um par em " + file);
+        }
+        return new LoadedKey(kid, privateKey, publicKey, publishedAt);
+    }
+
+    private static KeySet ephemeral() throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair keyPair = generator.generateKeyPair();
+        String kid = "ephemeral-" + UUID.randomUUID();
+        log.warn("jwt.keys.directory não configurado: assinando com a chave efêmera {}, "
+                + "que não é compartilhada entre instâncias nem sobrevive a um restart", kid);
+
+        Map<String, LoadedKey> keys = Map.of(kid,
+                new LoadedKey(kid, keyPair.getPrivate(), keyPair.getPublic(), Instant.now()));
+        return new KeySet(Map.of(), keys, new SigningKey(kid, keyPair.getPrivate()), toJwks(keys));
+    }
+
+    private static boolean matches(PrivateKey privateKey, PublicKey publicKey) throws GeneralSecurityException {
+        byte[] probe = "jwt-key-ring".getBytes(StandardCharsets.US_ASCII);
+        Signature signer = Signature.getInstance("SHA256withECDSA");
+        signer.initSign(privateKey);
+        signer.update(probe);
+        byte[] signature = signer.sign();
+
+        Signature verifier = Signature.getInstance("SHA256withECDSA");
+        verifier.initVerify(publicKey);
+        verifier.update(probe);
+        return verifier.verify(signature);
+    }
+
+    private static Jwks toJwks(Map<String, LoadedKey> keys) {
+        List<Map<String, String>> jwkList = keys.values().stream()
+                .sorted(Comparator.comparing(LoadedKey::kid))
+                .map(key -> {
+                    ECPublicKey publicKey = (ECPublicKey) key.publicKey();
+                    Map<String, String> jwk = new LinkedHashMap<>();
+                    jwk.put("kty", "EC");
+                    jwk.put("crv", "P-256");
+                    jwk.put("use", "sig");
+                    jwk.put("alg", "ES256");
+                    jwk.put("kid", key.kid());
+                    jwk.put("x", coordinate(publicKey.getW().getAffineX()));
+                    jwk.put("y", coordinate(publicKey.getW().getAffineY()));
+                    return jwk;
+                })
+                .toList();
+        try {
+            String json = OBJECT_MAPPER.writeValueAsString(Map.of("keys", jwkList));
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json.getBytes(StandardCharsets.UTF_8));
+            return new Jwks(json, "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + "\"");
+        } catch (JsonProcessingException | GeneralSecurityException e) {
+            throw new IllegalStateException("Falha ao montar o JWKS", e);
+        }
+    }
+
+    // Coordenada sem sinal, com tamanho fixo de 32 bytes, em base64url (RFC 7518, seção 6.2.1)
+    private static String coordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] fixed = new byte[P256_COORDINATE_BYTES];
+        int length = Math.min(bytes.length, P256_COORDINATE_BYTES);
+        System.arraycopy(bytes, bytes.length - length, fixed, P256_COORDINATE_BYTES - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+    }
+}
@@ -1,77 +1,266 @@
 package com.rgbnet.provider.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.rgbnet.provider.util.UuidV7;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
-public class JwtTokenProvider {
+public class JwtTokenProvider implements MeterBinder {
 
-    @Value("${jwt.secret}")
-    private String secretKey;
+    public static final String ROLES_CLAIM = "roles";
+    public static final String ENABLED_CLAIM = "enabled";
+    public static final String LOCKED_CLAIM = "locked";
 
-    @Value("${jwt.expiration}")
-    private long jwtExpiration;
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final JwtKeyRing keyRing;
+    private final long jwtExpiration;
+
+    // Autorização sem banco: o principal é montado a partir das claims enquanto o token estiver "fresco"
+    private final boolean statelessAuthorization;
+    private final Duration statelessFreshness;
+
+    // Tokens HS256 sem "kid", emitidos antes das chaves ES256; null quando não são mais aceitos
+    private final Key legacyKey;
+    // Parser imutável e thread-safe; a chave de cada token vem do key ring pelo "kid" do header
+    private final JwtParser jwtParser;
+
+    // Tokens já verificados, indexados pelo SHA-256 do token e expirados no "exp" de cada um
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    private record VerifiedToken(String kid, Claims claims) {
+    }
+
+    public record IssuedToken(String token, String jti, Instant expiresAt) {
+    }
+
+    public JwtTokenProvider(
+            JwtKeyRing keyRing,
+            @Value("${jwt.secret:}") String secretKey,
+            @Value("${jwt.legacy-hs256.enabled:true}") boolean acceptLegacyTokens,
+            @Value("${jwt.expiration}") long jwtExpiration,
+            @Value("${jwt.verified-cache.max-size:10000}") long verifiedCacheMaxSize,
+            @Value("${jwt.stateless-authorization.enabled:false}") boolean statelessAuthorization,
+            @Value("${jwt.stateless-authorization.freshness:5m}") Duration statelessFreshness
+    ) {
+        this.keyRing = keyRing;
+        this.jwtExpiration = jwtExpiration;
+        this.statelessAuthorization = statelessAuthorization;
+        this.statelessFreshness = statelessFreshness;
+        this.legacyKey = acceptLegacyTokens ? Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey)) : null;
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new KeyRingResolver())
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+    }
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = verify(token);
         return claimsResolver.apply(claims);
     }
 
+    // Valida assinatura e expiração uma única vez; tokens repetidos vêm do cache sem nova verificação ECDSA,
+    // desde que a chave que os assinou continue no key ring
+    public Claims verify(String token) {
+        final String digest = digest(token);
+        VerifiedToken verified = verifiedTokens.getIfPresent(digest);
+        if (verified != null && isTrusted(verified.kid())) {
+            return verified.claims();
+        }
+
+        Jws<Claims> jws = jwtParser.parseClaimsJws(token);
+        Claims claims = jws.getBody();
+        // Sem "exp" não há como limitar o tempo de vida da entrada, então não é cacheado
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(digest, new VerifiedToken(jws.getHeader().getKeyId(), claims));
+        }
+        return claims;
+    }
+
     public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+        return issue(userDetails).token();
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        return Jwts
+        return issue(extraClaims, userDetails).token();
+    }
+
+    // Emite o access token devolvendo também jti e expiração, que acompanham o refresh token para a revogação
+    public IssuedToken issue(UserDetails userDetails) {
+        Map<String, Object> claims = new HashMap<>();
+        if (statelessAuthorization) {
+            claims.put(ROLES_CLAIM, roleNames(userDetails.getAuthorities()));
+            claims.put(ENABLED_CLAIM, userDetails.isEnabled());
+            claims.put(LOCKED_CLAIM, !userDetails.isAccountNonLocked());
+        }
+        return issue(claims, userDetails);
+    }
+
+    public IssuedToken issue(Map<String, Object> extraClaims, UserDetails userDetails) {
+        JwtKeyRing.SigningKey signingKey = keyRing.signingKey();
+        long now = System.currentTimeMillis();
+        String jti = UuidV7.generate().toString();
+        Date expiration = new Date(now + jwtExpiration);
+        String token = Jwts
                 .builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.kid())
                 .setClaims(extraClaims)
+                .setId(jti)
                 .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .setIssuedAt(new Date(now))
+                .setExpiration(expiration)
+                .signWith(signingKey.privateKey(), SignatureAlgorithm.ES256)
                 .compact();
+        return new IssuedToken(token, jti, expiration.toInstant());
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(verify(token), userDetails);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        final String username = claims.getSubject();
+        return (username.equals(userDetails.getUsername())) && !isTokenExpired(claims);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    // Monta o principal direto das claims verificadas; vazio quando o modo está desligado,
+    // falta alguma claim ou o token é mais antigo que a janela de frescor (cai no repositório)
+    public Optional<UserDetails> resolvePrincipal(Claims claims) {
+        if (!statelessAuthorization) {
+            return Optional.empty();
+        }
+
+        Object roles = claims.get(ROLES_CLAIM);
+        Boolean enabled = claims.get(ENABLED_CLAIM, Boolean.class);
+        Boolean locked = claims.get(LOCKED_CLAIM, Boolean.class);
+        Date issuedAt = claims.getIssuedAt();
+
+        if (!(roles instanceof Collection<?> roleNames) || enabled == null || locked == null || issuedAt == null) {
+            return Optional.empty();
+        }
+        if (issuedAt.toInstant().plus(statelessFreshness).isBefore(new Date().toInstant())) {
+            return Optional.empty();
+        }
+
+        return Optional.of(org.springframework.security.core.userdetails.User
+                .withUsername(claims.getSubject())
+                .password("")
+                .authorities(roleNames.stream().map(role -> ROLE_PREFIX + role).toArray(String[]::new))
+                .disabled(!enabled)
+                .accountLocked(locked)
+                .build());
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, verifiedTokens, "jwt.verified-tokens");
+    }
+
+    private boolean isTrusted(String kid) {
+        return kid != null ? keyRing.verificationKey(kid) != null : legacyKey != null;
+    }
+
+    private boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private static List<String> roleNames(Collection<? extends GrantedAuthority> authorities) {
+        return authorities.stream()
+                .map(GrantedAuthority::getAuthority)
+                .map(authority -> authority.startsWith(ROLE_PREFIX)
+                        ? authority.substring(ROLE_PREFIX.length())
+                        : authority)
+                .toList();
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM", e);
+        }
+    }
+
+    // O algoritmo é conferido pelo jjwt contra o tipo da chave: um token HS256 com "kid" ou ES256 sem "kid"
+    // não passa na verificação
+    private final class KeyRingResolver extends SigningKeyResolverAdapter {
+
+        // A assinatura do jjwt 0.11 usa o tipo cru; o cabeçalho é lido como JwsHeader<?>
+        @Override
+        @SuppressWarnings("rawtypes")
+        public Key resolveSigningKey(JwsHeader rawHeader, Claims claims) {
+            JwsHeader<?> header = rawHeader;
+            String kid = header.getKeyId();
+            Key key = kid != null ? keyRing.verificationKey(kid) : legacyKey;
+            if (key == null) {
+                throw new SignatureException(kid != null
+                        ? "Chave de assinatura desconhecida: " + kid
+                        : "Tokens sem kid não são mais aceitos");
+            }
+            return key;
+        }
+    }
+
+    private static final class TokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String digest, VerifiedToken token, long currentTime) {
+            long remainingMillis = token.claims().getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String digest, VerifiedToken token, long currentTime, long currentDuration) {
+            return expireAfterCreate(digest, token, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String digest, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,272 @@
+package com.rgbnet.provider.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rgbnet.provider.exception.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+// Limita as tentativas de POST /auth/login por IP e por username antes de qualquer bcrypt ou consulta ao banco.
+// Primeiro o IP (não precisa ler o corpo), depois o username lido do JSON; o corpo é guardado para o controller.
+// GET /auth/availability, também público, tem um bucket próprio por IP: sem ele, serviria para enumerar usernames
+// e e-mails cadastrados. Atrás de proxy, o IP real depende de server.forward-headers-strategy.
+@Component
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+
+    private static final String LOGIN_PATH = "/auth/login";
+    private static final String AVAILABILITY_PATH = "/auth/availability";
+    private static final int MAX_BODY_BYTES = 4_096;
+    private static final int MAX_USERNAME_KEY_LENGTH = 64;
+    private static final String LOGIN_REJECTED = "Muitas tentativas de login; tente novamente mais tarde";
+
+    private final boolean enabled;
+    private final TokenBucketLimiter ipLimiter;
+    private final TokenBucketLimiter usernameLimiter;
+    private final TokenBucketLimiter availabilityLimiter;
+    private final ObjectMapper objectMapper;
+
+    private final Counter admitted;
+    private final Counter rejectedByIp;
+    private final Counter rejectedByUsername;
+    private final Counter availabilityAdmitted;
+    private final Counter availabilityRejected;
+
+    public LoginRateLimitFilter(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${security.login-rate-limit.enabled:true}") boolean enabled,
+            @Value("${security.login-rate-limit.per-ip.capacity:20}") int ipCapacity,
+            @Value("${security.login-rate-limit.per-ip.refill-per-minute:20}") int ipRefillPerMinute,
+            @Value("${security.login-rate-limit.per-username.capacity:5}") int usernameCapacity,
+            @Value("${security.login-rate-limit.per-username.refill-per-minute:5}") int usernameRefillPerMinute,
+            @Value("${security.login-rate-limit.availability.capacity:30}") int availabilityCapacity,
+            @Value("${security.login-rate-limit.availability.refill-per-minute:60}") int availabilityRefillPerMinute,
+            @Value("${security.login-rate-limit.stripes:64}") int stripes,
+            @Value("${security.login-rate-limit.max-keys:100000}") int maxKeys
+    ) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.ipLimiter = new TokenBucketLimiter(ipCapacity, ipRefillPerMinute, stripes, maxKeys);
+        this.usernameLimiter = new TokenBucketLimiter(usernameCapacity, usernameRefillPerMinute, stripes, maxKeys);
+        this.availabilityLimiter = new TokenBucketLimiter(availabilityCapacity, availabilityRefillPerMinute, stripes,
+                maxKeys);
+        this.admitted = attempts(meterRegistry, "admitted", "none");
+        this.rejectedByIp = attempts(meterRegistry, "rejected", "ip");
+        this.rejectedByUsername = attempts(meterRegistry, "rejected", "username");
+        this.availabilityAdmitted = availabilityChecks(meterRegistry, "admitted");
+        this.availabilityRejected = availabilityChecks(meterRegistry, "rejected");
+        bindLimiter(meterRegistry, "auth.login.rate-limit", ipLimiter, "ip");
+        bindLimiter(meterRegistry, "auth.login.rate-limit", usernameLimiter, "username");
+        bindLimiter(meterRegistry, "auth.availability.rate-limit", availabilityLimiter, "ip");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || (!isLogin(request) && !isAvailability(request));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        if (isAvailability(request)) {
+            long availabilityWait = availabilityLimiter.tryAcquire(request.getRemoteAddr());
+            if (availabilityWait > 0) {
+                availabilityRejected.increment();
+                reject(request, response, availabilityWait,
+                        "Muitas consultas de disponibilidade; tente novamente mais tarde");
+                return;
+            }
+            availabilityAdmitted.increment();
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long ipWait = ipLimiter.tryAcquire(request.getRemoteAddr());
+        if (ipWait > 0) {
+            rejectedByIp.increment();
+            reject(request, response, ipWait, LOGIN_REJECTED);
+            return;
+        }
+
+        byte[] body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+        if (body.length > MAX_BODY_BYTES) {
+            response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value());
+            return;
+        }
+
+        String username = username(body);
+        if (username != null) {
+            long usernameWait = usernameLimiter.tryAcquire(username);
+            if (usernameWait > 0) {
+                rejectedByUsername.increment();
+                reject(request, response, usernameWait, LOGIN_REJECTED);
+                return;
+            }
+        }
+
+        admitted.increment();
+        filterChain.doFilter(new CachedBodyRequest(request, body), response);
+    }
+
+    private static boolean isLogin(HttpServletRequest request) {
+        return "POST".equals(request.getMethod()) && LOGIN_PATH.equals(path(request));
+    }
+
+    private static boolean isAvailability(HttpServletRequest request) {
+        return "GET".equals(request.getMethod()) && AVAILABILITY_PATH.equals(path(request));
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    // Username normalizado e truncado: a chave não cresce com o que o cliente mandar. Corpo ilegível ou sem
+    // username passa só pelo limite de IP e é recusado depois pela validação do controller.
+    private String username(byte[] body) {
+        try {
+            JsonNode username = objectMapper.readTree(body).get("username");
+            if (username == null || !username.isTextual() || username.asText().isBlank()) {
+                return null;
+            }
+            String key = username.asText().trim().toLowerCase(Locale.ROOT);
+            return key.length() > MAX_USERNAME_KEY_LENGTH ? key.substring(0, MAX_USERNAME_KEY_LENGTH) : key;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos, String message)
+            throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+        ErrorResponse errorResponse = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase(),
+                message,
+                "uri=" + request.getRequestURI()
+        );
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+
+    private static Counter attempts(MeterRegistry registry, String result, String limit) {
+        return Counter.builder("auth.login.rate-limit")
+                .description("Tentativas de login admitidas e recusadas pelo limitador, por limite atingido")
+                .tag("result", result)
+                .tag("limit", limit)
+                .register(registry);
+    }
+
+    private static Counter availabilityChecks(MeterRegistry registry, String result) {
+        return Counter.builder("auth.availability.rate-limit")
+                .description("Consultas de disponibilidade admitidas e recusadas pelo limitador por IP")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static void bindLimiter(MeterRegistry registry, String prefix, TokenBucketLimiter limiter,
+                                    String limit) {
+        Gauge.builder(prefix + ".keys", limiter, TokenBucketLimiter::size)
+                .description("Chaves com token bucket em memória")
+                .tag("limit", limit)
+                .register(registry);
+        FunctionCounter.builder(prefix + ".evictions", limiter, TokenBucketLimiter::evictions)
+                .description("Buckets de chaves pouco usadas descartados para abrir espaço ao atingir max-keys")
+                .tag("limit", limit)
+                .register(registry);
+        FunctionCounter.builder(prefix + ".drained-evictions", limiter, TokenBucketLimiter::drainedEvictions)
+                .description("Buckets descartados antes de voltarem a encher, por falta de outro candidato")
+                .tag("limit", limit)
+                .register(registry);
+    }
+
+    // Devolve ao controller o corpo já lido pelo filtro
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException("Leitura assíncrona não suportada");
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(@NonNull byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.rgbnet.provider.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+// Executa encode/matches no PasswordHashingExecutor; upgradeEncoding só inspeciona o hash e fica na thread atual
+@RequiredArgsConstructor
+public class OffloadingPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final PasswordHashingExecutor executor;
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executor.execute(PasswordHashingExecutor.Operation.ENCODE, () -> delegate.encode(rawPassword));
+    }
+
+    // Hash de várias senhas em paralelo, usado por importações em lote
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        List<Supplier<String>> tasks = rawPasswords.stream()
+                .<Supplier<String>>map(rawPassword -> () -> delegate.encode(rawPassword))
+                .toList();
+        return executor.executeAll(PasswordHashingExecutor.Operation.ENCODE, tasks);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executor.execute(
+                PasswordHashingExecutor.Operation.MATCHES, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
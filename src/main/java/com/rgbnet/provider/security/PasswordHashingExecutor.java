@@ -0,0 +1,180 @@
+package com.rgbnet.provider.security;
+
+import com.rgbnet.provider.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Pool dedicado ao hashing de senhas, dimensionado pelos núcleos e com fila limitada:
+// quando satura, falha rápido em vez de prender as worker threads do servidor.
+// A thread chamadora fica bloqueada até o hash terminar, então o número de chamadas em andamento é limitado por
+// max-in-flight, que precisa ficar abaixo das worker threads do Undertow (por padrão, metade delas); acima dele
+// a chamada é recusada com 503 antes de ocupar a fila. Um valor maior ou igual às workers impede a subida.
+@Component
+public class PasswordHashingExecutor {
+
+    public enum Operation {
+        ENCODE, MATCHES
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final int poolSize;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final long retryAfterSeconds;
+
+    private final Map<Operation, Timer> timers = new EnumMap<>(Operation.class);
+    private final Counter rejected;
+
+    public PasswordHashingExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${security.password.hashing.threads:0}") int threads,
+            @Value("${security.password.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${security.password.hashing.retry-after:2s}") Duration retryAfter,
+            @Value("${security.password.hashing.max-in-flight:0}") int maxInFlight,
+            @Value("${server.undertow.threads.worker:0}") int workerThreads
+    ) {
+        this.poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        // Mesmo padrão do Undertow quando server.undertow.threads.worker não é informado: 8 por io-thread
+        int workers = workerThreads > 0 ? workerThreads : 8 * Math.max(Runtime.getRuntime().availableProcessors(), 2);
+        int permits = maxInFlight > 0 ? maxInFlight : Math.max(1, workers / 2);
+        if (permits >= workers) {
+            throw new IllegalStateException("security.password.hashing.max-in-flight (" + permits
+                    + ") precisa ser menor que as worker threads do Undertow (" + workers + ")");
+        }
+        this.maxInFlight = permits;
+        this.inFlight = new Semaphore(permits);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+
+        for (Operation operation : Operation.values()) {
+            timers.put(operation, Timer.builder("password.hash.duration")
+                    .description("Tempo de CPU gasto em cada operação de hash de senha")
+                    .tag("operation", operation.name().toLowerCase())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        this.rejected = Counter.builder("password.hash.rejected")
+                .description("Operações recusadas por saturação do pool de hashing")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.queue.depth", executor, e -> e.getQueue().size())
+                .description("Operações de hash aguardando na fila")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Operações de hash em execução")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.in-flight", inFlight, semaphore -> this.maxInFlight - semaphore.availablePermits())
+                .description("Chamadas aguardando um hash (na fila ou em execução), limitadas por max-in-flight")
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(Operation operation, Supplier<T> task) {
+        if (!inFlight.tryAcquire()) {
+            throw saturated();
+        }
+        try {
+            Future<T> future;
+            try {
+                future = executor.submit(() -> timed(operation, task));
+            } catch (RejectedExecutionException e) {
+                throw saturated();
+            }
+            return await(future);
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    // Para cargas em lote: mantém no máximo poolSize tarefas no pool para não ocupar a fila usada pelos logins
+    // e, se mesmo assim o pool recusar, executa na thread chamadora em vez de falhar
+    @SuppressWarnings("unchecked")
+    public <T> List<T> executeAll(Operation operation, List<Supplier<T>> tasks) {
+        Object[] results = new Object[tasks.size()];
+        List<Future<?>> futures = new ArrayList<>(tasks.size());
+        Semaphore window = new Semaphore(poolSize);
+
+        for (int i = 0; i < tasks.size(); i++) {
+            int index = i;
+            Supplier<T> task = tasks.get(i);
+            window.acquireUninterruptibly();
+            try {
+                futures.add(executor.submit(() -> {
+                    try {
+                        results[index] = timed(operation, task);
+                    } finally {
+                        window.release();
+                    }
+                }));
+            } catch (RejectedExecutionException e) {
+                window.release();
+                results[index] = timed(operation, task);
+            }
+        }
+
+        futures.forEach(this::await);
+        return (List<T>) Arrays.asList(results);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private ServiceUnavailableException saturated() {
+        rejected.increment();
+        return new ServiceUnavailableException(
+                "Capacidade de processamento de senhas esgotada, tente novamente", retryAfterSeconds);
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Hashing de senha interrompido", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Falha no hashing de senha", e.getCause());
+        }
+    }
+
+    private <T> T timed(Operation operation, Supplier<T> task) {
+        return timers.get(operation).record(task);
+    }
+}
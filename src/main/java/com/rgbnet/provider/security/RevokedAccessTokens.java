@@ -0,0 +1,103 @@
+package com.rgbnet.provider.security;
+
+import com.rgbnet.provider.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// jti dos access tokens revogados antes de expirar, mantidos em memória para a autorização continuar sem banco.
+// A consulta passa primeiro pelo filtro de Bloom (quase sempre negativo, sem alocação) e só os positivos vão ao
+// conjunto exato. O conjunto é reconstruído a partir de revoked_access_tokens a cada
+// jwt.revocation.refresh-interval-ms, o que propaga revogações feitas em outras instâncias e descarta as
+// que já expiraram; revogações locais entram na hora.
+@Slf4j
+@Component
+public class RevokedAccessTokens {
+
+    private record Revocations(BloomFilter bloom, Set<String> jtis) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final double falsePositiveRate;
+
+    private volatile Revocations revocations;
+    private final Counter revokedHits;
+    private final Counter falsePositives;
+
+    public RevokedAccessTokens(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.revocation.false-positive-rate:0.001}") double falsePositiveRate
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.falsePositiveRate = falsePositiveRate;
+        this.revocations = build(List.of());
+        this.revokedHits = Counter.builder("jwt.revocation.checks")
+                .description("Consultas ao filtro de revogação que chegaram ao conjunto exato, por resultado")
+                .tag("result", "revoked")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("jwt.revocation.checks")
+                .description("Consultas ao filtro de revogação que chegaram ao conjunto exato, por resultado")
+                .tag("result", "false-positive")
+                .register(meterRegistry);
+        Gauge.builder("jwt.revocation.size", this, tokens -> tokens.revocations.jtis().size())
+                .description("Access tokens revogados e ainda não expirados mantidos em memória")
+                .register(meterRegistry);
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        Revocations current = revocations;
+        if (!current.bloom().mightContain(jti)) {
+            return false;
+        }
+        boolean revoked = current.jtis().contains(jti);
+        (revoked ? revokedHits : falsePositives).increment();
+        return revoked;
+    }
+
+    // Chamado após o commit da revogação; as demais instâncias a recebem no próximo refresh
+    public void revoke(String jti) {
+        Revocations current = revocations;
+        current.jtis().add(jti);
+        current.bloom().add(jti);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-interval-ms:5000}")
+    public void refresh() {
+        try {
+            List<String> jtis = jdbcTemplate.queryForList(
+                    "SELECT jti FROM revoked_access_tokens WHERE expires_at > ?", String.class,
+                    Timestamp.valueOf(LocalDateTime.now()));
+            revocations = build(jtis);
+        } catch (DataAccessException e) {
+            // Mantém o conjunto atual; a próxima execução tenta de novo
+            log.warn("Falha ao recarregar os tokens revogados: {}", e.getMessage());
+        }
+    }
+
+    // Folga para as revogações locais que chegarem até o próximo refresh
+    private Revocations build(List<String> jtis) {
+        BloomFilter bloom = BloomFilter.create(Math.max(1_024, jtis.size() * 2L), falsePositiveRate);
+        Set<String> exact = ConcurrentHashMap.newKeySet(Math.max(16, jtis.size()));
+        for (String jti : jtis) {
+            bloom.add(jti);
+            exact.add(jti);
+        }
+        return new Revocations(bloom, exact);
+    }
+}
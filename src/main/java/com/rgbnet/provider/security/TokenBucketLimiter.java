@@ -0,0 +1,149 @@
+package com.rgbnet.provider.security;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+// Token buckets por chave (IP, username...). As chaves são espalhadas em faixas, cada uma com seu lock e seu
+// LinkedHashMap em ordem de acesso: chaves diferentes raramente disputam o mesmo lock. Uma faixa cheia abre
+// espaço descartando, entre as chaves menos usadas, a de bucket mais cheio: um bucket que já voltou a encher
+// equivale a um novo, e os drenados são os últimos a sair. Uma chave nova nunca é recusada por falta de espaço,
+// então espalhar tentativas por muitas chaves não bloqueia quem ainda não estava sendo acompanhado.
+final class TokenBucketLimiter {
+
+    // Chaves de acesso mais antigo examinadas para escolher a descartada
+    private static final int EVICTION_CANDIDATES = 8;
+
+    private final Stripe[] stripes;
+    private final double capacity;
+    private final double tokensPerNano;
+    private final LongSupplier nanoTime;
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder drainedEvictions = new LongAdder();
+
+    TokenBucketLimiter(int capacity, int refillPerMinute, int stripes, int maxKeys) {
+        this(capacity, refillPerMinute, stripes, maxKeys, System::nanoTime);
+    }
+
+    TokenBucketLimiter(int capacity, int refillPerMinute, int stripes, int maxKeys, LongSupplier nanoTime) {
+        if (capacity <= 0 || refillPerMinute <= 0) {
+            throw new IllegalArgumentException("Capacidade e reposição do token bucket devem ser positivas");
+        }
+        int stripeCount = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        int keysPerStripe = Math.max(1, maxKeys / stripeCount);
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new Stripe(keysPerStripe);
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerMinute / 60e9;
+        this.nanoTime = nanoTime;
+    }
+
+    // 0 quando a tentativa foi admitida; senão, nanossegundos até o próximo token
+    long tryAcquire(String key) {
+        Stripe stripe = stripes[spread(key.hashCode()) & (stripes.length - 1)];
+        long now = nanoTime.getAsLong();
+        stripe.lock.lock();
+        try {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                if (stripe.buckets.size() >= stripe.maxKeys) {
+                    makeRoom(stripe, now);
+                }
+                bucket = new Bucket(capacity, now);
+                stripe.buckets.put(key, bucket);
+            } else {
+                bucket.tokens = refilled(bucket, now);
+                bucket.updatedAt = now;
+            }
+
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - bucket.tokens) / tokensPerNano);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    // Descarta a chave de bucket mais cheio entre as de acesso mais antigo, parando na primeira já cheia.
+    // Percorrer o entrySet não altera a ordem de acesso.
+    private void makeRoom(Stripe stripe, long now) {
+        Iterator<Map.Entry<String, Bucket>> eldest = stripe.buckets.entrySet().iterator();
+        String evicted = null;
+        double mostTokens = -1;
+        for (int i = 0; i < EVICTION_CANDIDATES && eldest.hasNext(); i++) {
+            Map.Entry<String, Bucket> candidate = eldest.next();
+            double tokens = refilled(candidate.getValue(), now);
+            if (tokens > mostTokens) {
+                evicted = candidate.getKey();
+                mostTokens = tokens;
+            }
+            if (tokens >= capacity) {
+                break;
+            }
+        }
+        stripe.buckets.remove(evicted);
+        evictions.increment();
+        if (mostTokens < capacity) {
+            drainedEvictions.increment();
+        }
+    }
+
+    private double refilled(Bucket bucket, long now) {
+        return Math.min(capacity, bucket.tokens + (now - bucket.updatedAt) * tokensPerNano);
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.buckets.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    long evictions() {
+        return evictions.sum();
+    }
+
+    // Descartes de buckets que ainda não tinham voltado a encher: max-keys pequeno para o volume de chaves
+    long drainedEvictions() {
+        return drainedEvictions.sum();
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class Bucket {
+
+        private double tokens;
+        private long updatedAt;
+
+        private Bucket(double tokens, long updatedAt) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+    }
+
+    private static final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final int maxKeys;
+        private final LinkedHashMap<String, Bucket> buckets = new LinkedHashMap<>(16, 0.75f, true);
+
+        private Stripe(int maxKeys) {
+            this.maxKeys = maxKeys;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.rgbnet.provider.service;
+
+import com.rgbnet.provider.security.JwtTokenProvider;
+import com.rgbnet.provider.security.RevokedAccessTokens;
+import com.rgbnet.provider.util.UuidV7;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+// Refresh tokens rotativos: cada uso devolve um token novo e marca o anterior como rotacionado.
+// Os tokens de um login formam uma família; reapresentar um token já rotacionado ou revogado indica que ele
+// vazou, e a família inteira é revogada junto com os access tokens ainda válidos que ela emitiu.
+// Só o SHA-256 do token é gravado. A autorização das requisições continua sem banco: os jti revogados chegam
+// ao filtro pelo RevokedAccessTokens.
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RevokedAccessTokens revokedAccessTokens;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Value("${jwt.refresh.expiration:14d}")
+    private Duration refreshExpiration;
+
+    private final Counter rotated;
+    private final Counter reused;
+    private final Counter invalid;
+
+    public RefreshTokenService(
+            NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            RevokedAccessTokens revokedAccessTokens,
+            MeterRegistry meterRegistry
+    ) {
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.revokedAccessTokens = revokedAccessTokens;
+        this.rotated = refreshes(meterRegistry, "rotated");
+        this.reused = refreshes(meterRegistry, "reused");
+        this.invalid = refreshes(meterRegistry, "invalid");
+    }
+
+    public record Rotation(JwtTokenProvider.IssuedToken accessToken, String refreshToken) {
+    }
+
+    private enum Outcome {
+        ROTATED, REUSED, INVALID
+    }
+
+    private record RotationResult(Outcome outcome, Rotation rotation, List<String> revokedJtis) {
+    }
+
+    private record StoredToken(UUID id, UUID familyId, UUID userId, LocalDateTime expiresAt, boolean used) {
+    }
+
+    // Login: abre uma família nova, ligada ao access token emitido junto
+    public String issue(String username, JwtTokenProvider.IssuedToken accessToken) {
+        return transactionTemplate.execute(status -> insert(UuidV7.generate(), username, accessToken));
+    }
+
+    // Troca o refresh token por um novo par; accessTokenIssuer recebe o username e emite o access token
+    // (e pode recusar, por exemplo, um usuário desativado desde o login)
+    public Rotation rotate(String refreshToken, Function<String, JwtTokenProvider.IssuedToken> accessTokenIssuer) {
+        String hash = hash(refreshToken);
+        RotationResult result = transactionTemplate.execute(status -> {
+            StoredToken stored = find(hash, true);
+            LocalDateTime now = LocalDateTime.now();
+            if (stored == null) {
+                return new RotationResult(Outcome.INVALID, null, List.of());
+            }
+            if (stored.used()) {
+                return new RotationResult(Outcome.REUSED, null, revokeFamily(stored.familyId(), now));
+            }
+            if (stored.expiresAt().isBefore(now)) {
+                return new RotationResult(Outcome.INVALID, null, List.of());
+            }
+
+            String username = namedParameterJdbcTemplate.queryForObject(
+                    "SELECT username FROM users WHERE id = :id", Map.of("id", stored.userId()), String.class);
+            JwtTokenProvider.IssuedToken accessToken = accessTokenIssuer.apply(username);
+            namedParameterJdbcTemplate.update("UPDATE refresh_tokens SET rotated_at = :now WHERE id = :id",
+                    new MapSqlParameterSource("now", Timestamp.valueOf(now)).addValue("id", stored.id()));
+            String next = insert(stored.familyId(), username, accessToken);
+            return new RotationResult(Outcome.ROTATED, new Rotation(accessToken, next), List.of());
+        });
+
+        switch (result.outcome()) {
+            case ROTATED -> rotated.increment();
+            case REUSED -> {
+                reused.increment();
+                result.revokedJtis().forEach(revokedAccessTokens::revoke);
+                log.warn("Refresh token reutilizado; família revogada com {} access token(s) ativos",
+                        result.revokedJtis().size());
+                throw new BadCredentialsException("Refresh token já utilizado; a sessão foi encerrada");
+            }
+            case INVALID -> {
+                invalid.increment();
+                throw new BadCredentialsException("Refresh token inválido ou expirado");
+            }
+        }
+        return result.rotation();
+    }
+
+    // Logout: revoga a família do token informado; tokens desconhecidos são ignorados
+    public void revoke(String refreshToken) {
+        String hash = hash(refreshToken);
+        List<String> revokedJtis = transactionTemplate.execute(status -> {
+            StoredToken stored = find(hash, false);
+            return stored != null ? revokeFamily(stored.familyId(), LocalDateTime.now()) : List.<String>of();
+        });
+        revokedJtis.forEach(revokedAccessTokens::revoke);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh.cleanup-interval-ms:3600000}")
+    public void deleteExpired() {
+        Map<String, Object> params = Map.of("now", Timestamp.valueOf(LocalDateTime.now()));
+        int refreshTokens = namedParameterJdbcTemplate.update(
+                "DELETE FROM refresh_tokens WHERE expires_at < :now", params);
+        int accessTokens = namedParameterJdbcTemplate.update(
+                "DELETE FROM revoked_access_tokens WHERE expires_at < :now", params);
+        if (refreshTokens > 0 || accessTokens > 0) {
+            log.info("Removidos {} refresh token(s) e {} revogação(ões) expirados", refreshTokens, accessTokens);
+        }
+    }
+
+    private String insert(UUID familyId, String username, JwtTokenProvider.IssuedToken accessToken) {
+        String token = newToken();
+        LocalDateTime now = LocalDateTime.now();
+        int inserted = namedParameterJdbcTemplate.update("""
+                        INSERT INTO refresh_tokens (id, token_hash, family_id, user_id, access_jti, access_expires_at,
+                                                    expires_at, created_at)
+                        SELECT :id, :tokenHash, :familyId, u.id, :accessJti, :accessExpiresAt, :expiresAt, :now
+                        FROM users u
+                        WHERE u.username = :username
+                        """,
+                new MapSqlParameterSource()
+                        .addValue("id", UuidV7.generate())
+                        .addValue("tokenHash", hash(token))
+                        .addValue("familyId", familyId)
+                        .addValue("accessJti", UUID.fromString(accessToken.jti()))
+                        .addValue("accessExpiresAt", Timestamp.valueOf(
+                                LocalDateTime.ofInstant(accessToken.expiresAt(), ZoneId.systemDefault())))
+                        .addValue("expiresAt", Timestamp.valueOf(now.plus(refreshExpiration)))
+                        .addValue("now", Timestamp.valueOf(now))
+                        .addValue("username", username));
+        if (inserted != 1) {
+            throw new IllegalStateException("Usuário não encontrado para o refresh token: " + username);
+        }
+        return token;
+    }
+
+    private StoredToken find(String hash, boolean lock) {
+        List<StoredToken> tokens = namedParameterJdbcTemplate.query("""
+                        SELECT id, family_id, user_id, expires_at, rotated_at, revoked_at
+                        FROM refresh_tokens
+                        WHERE token_hash = :tokenHash
+                        """ + (lock ? " FOR UPDATE" : ""),
+                Map.of("tokenHash", hash),
+                (rs, rowNum) -> new StoredToken(
+                        rs.getObject("id", UUID.class),
+                        rs.getObject("family_id", UUID.class),
+                        rs.getObject("user_id", UUID.class),
+                        rs.getTimestamp("expires_at").toLocalDateTime(),
+                        rs.getTimestamp("rotated_at") != null || rs.getTimestamp("revoked_at") != null));
+        return tokens.isEmpty() ? null : tokens.get(0);
+    }
+
+    // Revoga todos os tokens da família e registra os access tokens dela que ainda não expiraram
+    private List<String> revokeFamily(UUID familyId, LocalDateTime now) {
+        Map<String, Object> params = Map.of("familyId", familyId, "now", Timestamp.valueOf(now));
+        namedParameterJdbcTemplate.update(
+                "UPDATE refresh_tokens SET revoked_at = :now WHERE family_id = :familyId AND revoked_at IS NULL",
+                params);
+
+        List<Map<String, Object>> accessTokens = namedParameterJdbcTemplate.queryForList(
+                "SELECT access_jti, access_expires_at FROM refresh_tokens "
+                        + "WHERE family_id = :familyId AND access_expires_at > :now",
+                params);
+        SqlParameterSource[] revocations = accessTokens.stream()
+                .map(row -> new MapSqlParameterSource()
+                        .addValue("jti", row.get("access_jti"))
+                        .addValue("expiresAt", row.get("access_expires_at"))
+                        .addValue("now", Timestamp.valueOf(now)))
+                .toArray(SqlParameterSource[]::new);
+        namedParameterJdbcTemplate.batchUpdate("""
+                INSERT INTO revoked_access_tokens (jti, expires_at, revoked_at)
+                VALUES (:jti, :expiresAt, :now)
+                ON CONFLICT DO NOTHING
+                """, revocations);
+
+        return accessTokens.stream().map(row -> row.get("access_jti").toString()).toList();
+    }
+
+    private String newToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM", e);
+        }
+    }
+
+    private static Counter refreshes(MeterRegistry registry, String result) {
+        return Counter.builder("auth.refresh")
+                .description("Trocas de refresh token, por resultado")
+                .tag("result", result)
+                .register(registry);
+    }
+}
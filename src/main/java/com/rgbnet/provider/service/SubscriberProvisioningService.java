@@ -0,0 +1,279 @@
+package com.rgbnet.provider.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rgbnet.provider.dto.SubscriberActivation;
+import com.rgbnet.provider.dto.UserDTO;
+import com.rgbnet.provider.security.OffloadingPasswordEncoder;
+import com.rgbnet.provider.util.UuidV7;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Provisionamento de assinantes a partir das ativações do billing. Cada lote é deduplicado por username
+// (vale a última mensagem) e aplicado em uma única transação com JDBC batch; se uma restrição do banco
+// derrubar o lote, as mensagens são reaplicadas uma a uma para isolar as que falham. Qualquer outra falha
+// sobe para o container, que repete o lote sem confirmar os offsets.
+@Slf4j
+@Service
+public class SubscriberProvisioningService {
+
+    private static final Set<String> DEFAULT_ROLES = Set.of("USER");
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OffloadingPasswordEncoder passwordEncoder;
+    private final UserBatchWriter userBatchWriter;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    private final Counter created;
+    private final Counter updated;
+    private final Counter duplicate;
+    private final Counter rejected;
+    private final DistributionSummary batchSize;
+    private final Timer applyDuration;
+    private final Timer recordLag;
+
+    public SubscriberProvisioningService(
+            NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            OffloadingPasswordEncoder passwordEncoder,
+            UserBatchWriter userBatchWriter,
+            Validator validator,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry
+    ) {
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.userBatchWriter = userBatchWriter;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.created = messages(meterRegistry, "created");
+        this.updated = messages(meterRegistry, "updated");
+        this.duplicate = messages(meterRegistry, "duplicate");
+        this.rejected = messages(meterRegistry, "rejected");
+        this.batchSize = DistributionSummary.builder("provisioning.batch.size")
+                .description("Mensagens por lote recebido do Kafka")
+                .register(meterRegistry);
+        this.applyDuration = Timer.builder("provisioning.apply.duration")
+                .description("Tempo para aplicar um lote de ativações no banco")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.recordLag = Timer.builder("provisioning.record.lag")
+                .description("Tempo entre a publicação da ativação e o seu consumo")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private record ExistingUser(UUID id, long version, LocalDateTime createdAt) {
+    }
+
+    private record Result(int created, int updated) {
+    }
+
+    public void process(List<ConsumerRecord<String, String>> records) {
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+
+        // Mensagens de um mesmo username chegam pela mesma partição, em ordem: a última do lote vence
+        Map<String, SubscriberActivation> latest = new LinkedHashMap<>();
+        for (ConsumerRecord<String, String> consumerRecord : records) {
+            recordLag.record(Math.max(0, now - consumerRecord.timestamp()), TimeUnit.MILLISECONDS);
+            SubscriberActivation activation = parse(consumerRecord);
+            if (activation == null) {
+                rejected.increment();
+                continue;
+            }
+            if (latest.remove(activation.getUsername()) != null) {
+                duplicate.increment();
+            }
+            latest.put(activation.getUsername(), activation);
+        }
+
+        if (!latest.isEmpty()) {
+            apply(new ArrayList<>(latest.values()));
+        }
+
+        batchSize.record(records.size());
+        applyDuration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private void apply(List<SubscriberActivation> activations) {
+        // Hash fora da transação para não segurar a conexão durante o bcrypt
+        Map<String, String> hashes = hashNewPasswords(activations);
+        Result result;
+        try {
+            result = transactionTemplate.execute(status -> write(activations, hashes));
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Lote de provisionamento falhou ({}), reaplicando mensagem a mensagem",
+                    e.getMostSpecificCause().getMessage());
+            int createdCount = 0;
+            int updatedCount = 0;
+            for (SubscriberActivation activation : activations) {
+                try {
+                    Result single = transactionTemplate.execute(status -> write(List.of(activation), hashes));
+                    createdCount += single.created();
+                    updatedCount += single.updated();
+                } catch (DataIntegrityViolationException rowException) {
+                    rejected.increment();
+                    log.warn("Ativação do assinante {} rejeitada: {}", activation.getUsername(),
+                            rowException.getMostSpecificCause().getMessage());
+                }
+            }
+            result = new Result(createdCount, updatedCount);
+        }
+
+        if (result != null) {
+            created.increment(result.created());
+            updated.increment(result.updated());
+        }
+    }
+
+    private Result write(List<SubscriberActivation> activations, Map<String, String> hashes) {
+        Map<String, ExistingUser> existing = findExisting(activations, true);
+        Map<UUID, Set<String>> currentRoles = findRoles(activations.stream()
+                .filter(activation -> activation.getRoles() == null || activation.getRoles().isEmpty())
+                .map(activation -> existing.get(activation.getUsername()))
+                .filter(Objects::nonNull)
+                .map(ExistingUser::id)
+                .toList());
+
+        List<UserBatchWriter.NewUser> inserts = new ArrayList<>();
+        List<UserBatchWriter.UserUpdate> updates = new ArrayList<>();
+        for (SubscriberActivation activation : activations) {
+            boolean hasRoles = activation.getRoles() != null && !activation.getRoles().isEmpty();
+            ExistingUser current = existing.get(activation.getUsername());
+            if (current == null) {
+                String hash = hashes.computeIfAbsent(activation.getUsername(),
+                        username -> passwordEncoder.encode(initialPassword(activation)));
+                UserDTO user = toUserDTO(activation, hasRoles ? activation.getRoles() : DEFAULT_ROLES);
+                inserts.add(new UserBatchWriter.NewUser(UuidV7.generate(), user, hash, user.isActive()));
+            } else {
+                Set<String> roles = hasRoles
+                        ? activation.getRoles()
+                        : currentRoles.getOrDefault(current.id(), Set.of());
+                updates.add(new UserBatchWriter.UserUpdate(current.id(), current.version() + 1, current.createdAt(),
+                        toUserDTO(activation, roles), hasRoles));
+            }
+        }
+
+        userBatchWriter.insert(inserts);
+        userBatchWriter.update(updates);
+        return new Result(inserts.size(), updates.size());
+    }
+
+    private Map<String, String> hashNewPasswords(List<SubscriberActivation> activations) {
+        Map<String, ExistingUser> existing = findExisting(activations, false);
+        List<SubscriberActivation> newUsers = activations.stream()
+                .filter(activation -> !existing.containsKey(activation.getUsername()))
+                .toList();
+        List<String> hashes = passwordEncoder.encodeAll(newUsers.stream()
+                .map(SubscriberProvisioningService::initialPassword)
+                .toList());
+
+        Map<String, String> hashesByUsername = new HashMap<>();
+        for (int i = 0; i < newUsers.size(); i++) {
+            hashesByUsername.put(newUsers.get(i).getUsername(), hashes.get(i));
+        }
+        return hashesByUsername;
+    }
+
+    // Com lock, dentro da transação de escrita, a versão lida é a que será incrementada
+    private Map<String, ExistingUser> findExisting(List<SubscriberActivation> activations, boolean lock) {
+        String sql = "SELECT id, username, version, created_at FROM users WHERE username IN (:usernames)"
+                + (lock ? " FOR UPDATE" : "");
+        Map<String, ExistingUser> existing = new HashMap<>();
+        namedParameterJdbcTemplate.query(sql,
+                Map.of("usernames", activations.stream().map(SubscriberActivation::getUsername).toList()),
+                rs -> {
+                    existing.put(rs.getString("username"), new ExistingUser(
+                            rs.getObject("id", UUID.class),
+                            rs.getLong("version"),
+                            rs.getTimestamp("created_at").toLocalDateTime()));
+                });
+        return existing;
+    }
+
+    private Map<UUID, Set<String>> findRoles(List<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<UUID, Set<String>> roles = new HashMap<>();
+        namedParameterJdbcTemplate.query("SELECT user_id, role FROM user_roles WHERE user_id IN (:ids)",
+                Map.of("ids", userIds),
+                rs -> {
+                    roles.computeIfAbsent(rs.getObject("user_id", UUID.class), id -> new HashSet<>())
+                            .add(rs.getString("role"));
+                });
+        return roles;
+    }
+
+    private SubscriberActivation parse(ConsumerRecord<String, String> consumerRecord) {
+        SubscriberActivation activation;
+        try {
+            activation = objectMapper.readValue(consumerRecord.value(), SubscriberActivation.class);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.warn("Ativação ilegível em {}-{}@{}: {}", consumerRecord.topic(), consumerRecord.partition(),
+                    consumerRecord.offset(), e.getMessage());
+            return null;
+        }
+
+        Set<ConstraintViolation<SubscriberActivation>> violations = validator.validate(activation);
+        if (!violations.isEmpty()) {
+            log.warn("Ativação inválida em {}-{}@{}: {}", consumerRecord.topic(), consumerRecord.partition(),
+                    consumerRecord.offset(), violations.stream()
+                            .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                            .sorted()
+                            .collect(Collectors.joining("; ")));
+            return null;
+        }
+        return activation;
+    }
+
+    private static UserDTO toUserDTO(SubscriberActivation activation, Set<String> roles) {
+        return UserDTO.builder()
+                .username(activation.getUsername())
+                .fullName(activation.getFullName())
+                .email(activation.getEmail())
+                .phone(activation.getPhone())
+                .roles(roles)
+                .active(activation.getActive() == null || activation.getActive())
+                .build();
+    }
+
+    // Sem senha na mensagem, o assinante recebe uma aleatória e precisa redefini-la
+    private static String initialPassword(SubscriberActivation activation) {
+        return activation.getPassword() != null ? activation.getPassword() : UUID.randomUUID().toString();
+    }
+
+    private static Counter messages(MeterRegistry registry, String result) {
+        return Counter.builder("provisioning.messages")
+                .description("Ativações de assinante consumidas, por resultado")
+                .tag("result", result)
+                .register(registry);
+    }
+}
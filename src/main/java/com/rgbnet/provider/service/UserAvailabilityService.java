@@ -0,0 +1,217 @@
+package com.rgbnet.provider.service;
+
+import com.rgbnet.provider.event.UserChangedEvent;
+import com.rgbnet.provider.repository.UserRepository;
+import com.rgbnet.provider.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// Disponibilidade de username e e-mail no cadastro. Filtros de Bloom com os valores normalizados (trim e
+// minúsculas) respondem a maioria das consultas sem banco: um negativo é definitivo, e só os possíveis positivos
+// são confirmados no repositório (comparação sem diferenciar maiúsculas, atendida pelos índices em lower()).
+// Os filtros são reconstruídos a partir de users a cada availability.rebuild-interval-ms; cadastros entram na hora
+// pelo evento do usuário, os deste nó antes do commit e os dos outros pelo tópico (UserAvailabilityProjection, com
+// availability.feed.enabled). Até a primeira reconstrução, toda consulta vai ao banco.
+@Slf4j
+@Service
+public class UserAvailabilityService {
+
+    private record Filters(BloomFilter usernames, BloomFilter emails) {
+    }
+
+    private record Registration(String username, String email) {
+    }
+
+    private enum Kind {
+        USERNAME, EMAIL
+    }
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final double falsePositiveRate;
+    private final long minExpectedInsertions;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private volatile Filters filters;
+    // Cadastros desde a última reconstrução: um cadastro cuja transação só confirma depois da leitura de users
+    // não aparece nela, então é reaplicado no filtro novo
+    private volatile ConcurrentLinkedQueue<Registration> journal = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder rebuilds = new LongAdder();
+    private final Counter usernameNegatives;
+    private final Counter usernameConfirmed;
+    private final Counter usernameFalsePositives;
+    private final Counter emailNegatives;
+    private final Counter emailConfirmed;
+    private final Counter emailFalsePositives;
+
+    public UserAvailabilityService(
+            UserRepository userRepository,
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${availability.enabled:true}") boolean enabled,
+            @Value("${availability.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${availability.min-expected-insertions:100000}") long minExpectedInsertions
+    ) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.falsePositiveRate = falsePositiveRate;
+        this.minExpectedInsertions = minExpectedInsertions;
+        this.usernameNegatives = checks(meterRegistry, Kind.USERNAME, "negative");
+        this.usernameConfirmed = checks(meterRegistry, Kind.USERNAME, "confirmed");
+        this.usernameFalsePositives = checks(meterRegistry, Kind.USERNAME, "false-positive");
+        this.emailNegatives = checks(meterRegistry, Kind.EMAIL, "negative");
+        this.emailConfirmed = checks(meterRegistry, Kind.EMAIL, "confirmed");
+        this.emailFalsePositives = checks(meterRegistry, Kind.EMAIL, "false-positive");
+        bindFilter(meterRegistry, Kind.USERNAME, Filters::usernames);
+        bindFilter(meterRegistry, Kind.EMAIL, Filters::emails);
+        FunctionCounter.builder("availability.filter.rebuilds", rebuilds, LongAdder::sum)
+                .description("Reconstruções dos filtros de disponibilidade a partir de users")
+                .register(meterRegistry);
+    }
+
+    public boolean isUsernameAvailable(String username) {
+        String normalized = normalize(username);
+        return !taken(Kind.USERNAME, normalized, Filters::usernames, userRepository::existsByNormalizedUsername);
+    }
+
+    public boolean isEmailAvailable(String email) {
+        String normalized = normalize(email);
+        return !taken(Kind.EMAIL, normalized, Filters::emails, userRepository::existsByNormalizedEmail);
+    }
+
+    // Disparado dentro da transação do cadastro, antes do commit: um registro desfeito só custa um falso positivo,
+    // mas uma linha confirmada nunca fica fora do filtro
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        apply(event);
+    }
+
+    // Também recebe pelo tópico os cadastros de todos os nós, inclusive os deste, que já entraram pelo evento local
+    public void apply(UserChangedEvent event) {
+        if (!enabled || event.type() == UserChangedEvent.Type.DELETED) {
+            return;
+        }
+        Registration registration = new Registration(normalize(event.username()), normalize(event.email()));
+        journal.add(registration);
+        Filters current = filters;
+        if (current != null) {
+            add(current, registration);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${availability.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        rebuildLock.lock();
+        try {
+            ConcurrentLinkedQueue<Registration> retired = journal;
+            journal = new ConcurrentLinkedQueue<>();
+
+            Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+            // Folga para os cadastros que chegarem até a próxima reconstrução
+            long expected = Math.max(minExpectedInsertions, (count != null ? count : 0) * 2);
+            Filters rebuilt = new Filters(BloomFilter.create(expected, falsePositiveRate),
+                    BloomFilter.create(expected, falsePositiveRate));
+            jdbcTemplate.query("SELECT username, email FROM users", rs -> {
+                rebuilt.usernames().add(normalize(rs.getString(1)));
+                rebuilt.emails().add(normalize(rs.getString(2)));
+            });
+
+            filters = rebuilt;
+            retired.forEach(registration -> add(rebuilt, registration));
+            journal.forEach(registration -> add(rebuilt, registration));
+            rebuilds.increment();
+            log.debug("Filtros de disponibilidade reconstruídos com {} usuário(s)", count);
+        } catch (DataAccessException e) {
+            // Mantém os filtros atuais; a próxima execução tenta de novo
+            log.warn("Falha ao reconstruir os filtros de disponibilidade: {}", e.getMessage());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private boolean taken(Kind kind, String normalized, Function<Filters, BloomFilter> filter,
+                          Predicate<String> repository) {
+        Filters current = filters;
+        if (current != null && !filter.apply(current).mightContain(normalized)) {
+            (kind == Kind.USERNAME ? usernameNegatives : emailNegatives).increment();
+            return false;
+        }
+        boolean exists = repository.test(normalized);
+        if (current != null) {
+            if (exists) {
+                (kind == Kind.USERNAME ? usernameConfirmed : emailConfirmed).increment();
+            } else {
+                (kind == Kind.USERNAME ? usernameFalsePositives : emailFalsePositives).increment();
+            }
+        }
+        return exists;
+    }
+
+    private void bindFilter(MeterRegistry registry, Kind kind, Function<Filters, BloomFilter> filter) {
+        String tag = kind.name().toLowerCase(Locale.ROOT);
+        Gauge.builder("availability.filter.false-positive-rate", this,
+                        service -> service.filters != null
+                                ? filter.apply(service.filters).expectedFalsePositiveRate() : Double.NaN)
+                .description("Taxa de falsos positivos estimada para as inserções atuais do filtro")
+                .tag("kind", tag)
+                .register(registry);
+        Gauge.builder("availability.filter.size", this,
+                        service -> service.filters != null ? filter.apply(service.filters).sizeInBytes() : 0)
+                .description("Memória ocupada pelos bits do filtro")
+                .baseUnit("bytes")
+                .tag("kind", tag)
+                .register(registry);
+        Gauge.builder("availability.filter.insertions", this,
+                        service -> service.filters != null ? filter.apply(service.filters).insertions() : 0)
+                .description("Valores inseridos no filtro desde a última reconstrução")
+                .tag("kind", tag)
+                .register(registry);
+    }
+
+    private static Counter checks(MeterRegistry registry, Kind kind, String result) {
+        return Counter.builder("availability.checks")
+                .description("Consultas de disponibilidade: negativas do filtro, positivos confirmados e falsos")
+                .tag("kind", kind.name().toLowerCase(Locale.ROOT))
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static void add(Filters filters, Registration registration) {
+        add(filters.usernames(), registration.username());
+        add(filters.emails(), registration.email());
+    }
+
+    // O mesmo cadastro chega pelo evento local, pelo tópico e pelo journal; repetições não contam como inserção
+    // na estimativa de falsos positivos
+    private static void add(BloomFilter filter, String value) {
+        if (!filter.mightContain(value)) {
+            filter.add(value);
+        }
+    }
+
+    static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,156 @@
+package com.rgbnet.provider.service;
+
+import com.rgbnet.provider.domain.User;
+import com.rgbnet.provider.dto.UserDTO;
+import com.rgbnet.provider.event.UserChangedEvent;
+import com.rgbnet.provider.event.UserEventOutbox;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+// Escrita de usuários por JDBC batch, compartilhada pela importação em massa e pelo provisionamento via Kafka.
+// Chamado dentro de uma transação: as linhas de users/user_roles e os eventos da outbox são gravados juntos.
+@Component
+@RequiredArgsConstructor
+class UserBatchWriter {
+
+    private static final String INSERT_USER = """
+            INSERT INTO users (id, username, password, full_name, email, phone, account_non_expired,
+                account_non_locked, credentials_non_expired, enabled, active, version, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, TRUE, TRUE, TRUE, TRUE, ?, 0, ?, ?)
+            """;
+
+    private static final String UPDATE_USER = """
+            UPDATE users SET full_name = ?, email = ?, phone = ?, active = ?, version = ?, updated_at = ?
+            WHERE id = ?
+            """;
+
+    private static final String INSERT_ROLE = "INSERT INTO user_roles (user_id, role) VALUES (?, ?)";
+    private static final String ROLES_COLLECTION = User.class.getName() + ".roles";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final UserEventOutbox userEventOutbox;
+    private final UserDetailsCache userDetailsCache;
+    private final EntityManagerFactory entityManagerFactory;
+
+    record NewUser(UUID id, UserDTO user, String passwordHash, boolean active) {
+    }
+
+    // version é a nova versão da linha; os papéis só são substituídos quando replaceRoles é verdadeiro
+    record UserUpdate(UUID id, long version, LocalDateTime createdAt, UserDTO user, boolean replaceRoles) {
+    }
+
+    void insert(List<NewUser> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        LocalDateTime createdAt = LocalDateTime.now();
+        Timestamp now = Timestamp.valueOf(createdAt);
+        jdbcTemplate.batchUpdate(INSERT_USER, users, users.size(), (ps, pending) -> {
+            UserDTO user = pending.user();
+            ps.setObject(1, pending.id());
+            ps.setString(2, user.getUsername());
+            ps.setString(3, pending.passwordHash());
+            ps.setString(4, user.getFullName());
+            ps.setString(5, user.getEmail());
+            ps.setString(6, user.getPhone());
+            ps.setBoolean(7, pending.active());
+            ps.setTimestamp(8, now);
+            ps.setTimestamp(9, now);
+        });
+        insertRoles(users.stream().map(pending -> Map.entry(pending.id(), pending.user().getRoles())).toList());
+
+        userEventOutbox.appendAll(users.stream()
+                .map(pending -> event(UserChangedEvent.Type.CREATED, pending.id(), 0L, pending.user(),
+                        pending.active(), createdAt, createdAt))
+                .toList());
+    }
+
+    void update(List<UserUpdate> updates) {
+        if (updates.isEmpty()) {
+            return;
+        }
+        LocalDateTime updatedAt = LocalDateTime.now();
+        Timestamp now = Timestamp.valueOf(updatedAt);
+        jdbcTemplate.batchUpdate(UPDATE_USER, updates, updates.size(), (ps, update) -> {
+            UserDTO user = update.user();
+            ps.setString(1, user.getFullName());
+            ps.setString(2, user.getEmail());
+            ps.setString(3, user.getPhone());
+            ps.setBoolean(4, user.isActive());
+            ps.setLong(5, update.version());
+            ps.setTimestamp(6, now);
+            ps.setObject(7, update.id());
+        });
+
+        List<UserUpdate> roleUpdates = updates.stream().filter(UserUpdate::replaceRoles).toList();
+        if (!roleUpdates.isEmpty()) {
+            namedParameterJdbcTemplate.update("DELETE FROM user_roles WHERE user_id IN (:ids)",
+                    Map.of("ids", roleUpdates.stream().map(UserUpdate::id).toList()));
+            insertRoles(roleUpdates.stream().map(update -> Map.entry(update.id(), update.user().getRoles())).toList());
+        }
+
+        updates.forEach(update -> userDetailsCache.invalidate(update.user().getUsername()));
+        evictSecondLevelCache(updates.stream().map(UserUpdate::id).toList());
+        userEventOutbox.appendAll(updates.stream()
+                .map(update -> event(UserChangedEvent.Type.UPDATED, update.id(), update.version(), update.user(),
+                        update.user().isActive(), update.createdAt(), updatedAt))
+                .toList());
+    }
+
+    // O JDBC passa por fora do Hibernate, então o cache de segundo nível não sabe destas linhas. Remove agora e
+    // de novo após o commit, como o UserDetailsCache, para que uma leitura concorrente não recoloque o estado
+    // anterior. Inserções não precisam disso: usuário que ainda não existia não está no cache.
+    private void evictSecondLevelCache(List<UUID> ids) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        Runnable evict = () -> ids.forEach(id -> {
+            cache.evictEntityData(User.class, id);
+            cache.evictCollectionData(ROLES_COLLECTION, id);
+        });
+        evict.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        }
+    }
+
+    private void insertRoles(List<Map.Entry<UUID, Set<String>>> rolesByUser) {
+        List<Object[]> roles = new ArrayList<>();
+        for (Map.Entry<UUID, Set<String>> entry : rolesByUser) {
+            for (String role : entry.getValue()) {
+                roles.add(new Object[]{entry.getKey(), role});
+            }
+        }
+        if (!roles.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ROLE, roles);
+        }
+    }
+
+    private static UserChangedEvent event(UserChangedEvent.Type type, UUID id, long version, UserDTO user,
+                                          boolean active, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        return new UserChangedEvent(UUID.randomUUID(), type, id, version, Instant.now(), user.getUsername(),
+                user.getFullName(), user.getEmail(), user.getPhone(), new HashSet<>(user.getRoles()), active,
+                createdAt, updatedAt);
+    }
+}
@@ -0,0 +1,164 @@
+package com.rgbnet.provider.service;
+
+import com.rgbnet.provider.dto.UserDTO;
+import com.rgbnet.provider.event.UserChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Modelo de leitura em memória do cadastro (lado de consulta do CQRS), reconstruído pelo
+// UserDirectoryProjection a partir do tópico compactado de eventos de usuário. Cada evento traz o estado
+// completo, então basta guardar a versão mais recente por id; eventos com versão menor ou igual são ignorados.
+// Enquanto não estiver pronto (ou se directory.enabled=false), toda consulta devolve vazio e o chamador usa o banco.
+@Component
+public class UserDirectory {
+
+    private record Entry(UUID id, long version, String username, String fullName, String email, String phone,
+                         Set<String> roles, boolean active, LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+        static Entry from(UserChangedEvent event) {
+            return new Entry(event.userId(), event.version() != null ? event.version() : 0L, event.username(),
+                    event.fullName(), event.email(), event.phone(), Set.copyOf(event.roles()), event.active(),
+                    event.createdAt(), event.updatedAt());
+        }
+
+        UserDTO toDTO() {
+            return UserDTO.builder()
+                    .id(id)
+                    .username(username)
+                    .fullName(fullName)
+                    .email(email)
+                    .phone(phone)
+                    .roles(new HashSet<>(roles))
+                    .createdAt(createdAt)
+                    .updatedAt(updatedAt)
+                    .active(active)
+                    .version(version)
+                    .build();
+        }
+    }
+
+    private final boolean enabled;
+    private final boolean readYourWrites;
+
+    private final ConcurrentHashMap<UUID, Entry> byId = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, UUID> byUsername = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, UUID> byEmail = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+    private final Counter hits;
+    private final Counter misses;
+
+    public UserDirectory(
+            MeterRegistry meterRegistry,
+            @Value("${directory.enabled:false}") boolean enabled,
+            @Value("${directory.read-your-writes:true}") boolean readYourWrites
+    ) {
+        this.enabled = enabled;
+        this.readYourWrites = readYourWrites;
+        this.hits = Counter.builder("directory.lookups")
+                .description("Consultas ao diretório em memória, por resultado")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("directory.lookups")
+                .description("Consultas ao diretório em memória, por resultado")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("directory.size", byId, ConcurrentHashMap::size)
+                .description("Usuários mantidos no diretório em memória")
+                .register(meterRegistry);
+        Gauge.builder("directory.ready", this, directory -> directory.isReady() ? 1 : 0)
+                .description("1 quando o diretório alcançou o fim do tópico na inicialização")
+                .register(meterRegistry);
+    }
+
+    public void apply(UserChangedEvent event) {
+        Entry incoming = Entry.from(event);
+        Entry[] previous = new Entry[1];
+        Entry current = byId.compute(incoming.id(), (id, existing) -> {
+            previous[0] = existing;
+            return existing == null || incoming.version() > existing.version() ? incoming : existing;
+        });
+        if (current != incoming) {
+            return;
+        }
+
+        Entry replaced = previous[0];
+        if (replaced != null) {
+            byUsername.remove(replaced.username(), replaced.id());
+            byEmail.remove(replaced.email(), replaced.id());
+        }
+        byUsername.put(incoming.username(), incoming.id());
+        byEmail.put(incoming.email(), incoming.id());
+    }
+
+    // Read-your-writes: o nó que fez a alteração a enxerga logo após o commit, sem esperar a volta pelo Kafka
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCommitted(UserChangedEvent event) {
+        if (enabled && readYourWrites) {
+            apply(event);
+        }
+    }
+
+    public void markReady() {
+        this.ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public Optional<UserDTO> findById(UUID id) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        return lookup(byId.get(id));
+    }
+
+    public Optional<Long> findVersion(UUID id) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(byId.get(id)).map(Entry::version);
+    }
+
+    public Optional<UserDTO> findByUsername(String username) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        Entry entry = resolve(byUsername.get(username));
+        return lookup(entry != null && entry.username().equals(username) ? entry : null);
+    }
+
+    public Optional<UserDTO> findByEmail(String email) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        Entry entry = resolve(byEmail.get(email));
+        return lookup(entry != null && entry.email().equals(email) ? entry : null);
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    private Entry resolve(UUID id) {
+        return id != null ? byId.get(id) : null;
+    }
+
+    private Optional<UserDTO> lookup(Entry entry) {
+        (entry != null ? hits : misses).increment();
+        return Optional.ofNullable(entry).map(Entry::toDTO);
+    }
+}
@@ -0,0 +1,52 @@
+package com.rgbnet.provider.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.rgbnet.provider.dto.UserDTO;
+import com.rgbnet.provider.repository.UserQueryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+// Exporta usuários em NDJSON percorrendo as mesmas páginas por keyset de GET /users: a memória fica limitada a
+// uma página e cada página é uma transação curta de leitura, sem conexão presa enquanto o cliente consome a resposta
+@Service
+@RequiredArgsConstructor
+public class UserExportService {
+
+    private final UserQueryRepository userQueryRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${users.export.page-size:500}")
+    private int pageSize;
+
+    public void export(Boolean active, OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(UserDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.setRootValueSeparator(null);
+
+            List<UserDTO> page = userQueryRepository.findFirstPage(active, pageSize);
+            while (!page.isEmpty()) {
+                for (UserDTO user : page) {
+                    writer.writeValue(generator, user);
+                    generator.writeRaw('\n');
+                }
+                // Descarrega a cada página para o cliente receber o conteúdo de forma incremental
+                generator.flush();
+                if (page.size() < pageSize) {
+                    break;
+                }
+                UserDTO last = page.get(page.size() - 1);
+                page = userQueryRepository.findPageAfter(last.getCreatedAt(), last.getId(), active, pageSize);
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.rgbnet.provider.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rgbnet.provider.dto.UserDTO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Lê o arquivo de importação linha a linha (CSV com cabeçalho ou NDJSON) sem carregá-lo inteiro em memória
+class UserImportReader implements AutoCloseable {
+
+    record Row(long line, UserDTO user, String error) {
+    }
+
+    private static final String ROLES_SEPARATOR = "\\|";
+
+    private final BufferedReader reader;
+    private final UserImportService.Format format;
+    private final ObjectMapper objectMapper;
+    private Map<String, Integer> csvColumns;
+    private long line;
+
+    UserImportReader(InputStream inputStream, UserImportService.Format format, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    // Próximas linhas não vazias até o limite do lote; lista vazia no fim do arquivo
+    List<Row> next(int limit) throws IOException {
+        List<Row> rows = new ArrayList<>(limit);
+        String content;
+        while (rows.size() < limit && (content = reader.readLine()) != null) {
+            line++;
+            if (content.isBlank()) {
+                continue;
+            }
+            if (format == UserImportService.Format.CSV && csvColumns == null) {
+                readHeader(content);
+                continue;
+            }
+            rows.add(parse(content));
+        }
+        return rows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Row parse(String content) {
+        try {
+            UserDTO user = format == UserImportService.Format.CSV ? parseCsv(content) : objectMapper.readValue(content, UserDTO.class);
+            if (user.getRoles() == null) {
+                user.setRoles(new HashSet<>());
+            }
+            return new Row(line, user, null);
+        } catch (IOException | RuntimeException e) {
+            return new Row(line, null, "Linha mal formada: " + e.getMessage());
+        }
+    }
+
+    private void readHeader(String content) {
+        List<String> header = splitCsv(content);
+        csvColumns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            csvColumns.put(header.get(i).trim(), i);
+        }
+    }
+
+    private UserDTO parseCsv(String content) {
+        List<String> values = splitCsv(content);
+        String roles = column(values, "roles");
+        return UserDTO.builder()
+                .username(column(values, "username"))
+                .password(column(values, "password"))
+                .fullName(column(values, "fullName"))
+                .email(column(values, "email"))
+                .phone(column(values, "phone"))
+                .roles(roles == null || roles.isBlank()
+                        ? new HashSet<>()
+                        : Arrays.stream(roles.split(ROLES_SEPARATOR))
+                                .map(String::trim)
+                                .filter(role -> !role.isEmpty())
+                                .collect(Collectors.toCollection(HashSet::new)))
+                .build();
+    }
+
+    private String column(List<String> values, String name) {
+        Integer index = csvColumns.get(name);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // Campos separados por vírgula, com suporte a aspas duplas e aspas escapadas ("")
+    private static List<String> splitCsv(String content) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < content.length() && content.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+}
@@ -0,0 +1,186 @@
+package com.rgbnet.provider.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rgbnet.provider.dto.UserDTO;
+import com.rgbnet.provider.dto.UserImportError;
+import com.rgbnet.provider.dto.UserImportReport;
+import com.rgbnet.provider.security.OffloadingPasswordEncoder;
+import com.rgbnet.provider.util.UuidV7;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// Importação em massa: valida cada linha com as mesmas restrições do UserDTO, faz o hash das senhas em
+// paralelo e grava por JDBC batch em transações por lote. Erros de uma linha não interrompem o job.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserImportService {
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OffloadingPasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final UserBatchWriter userBatchWriter;
+
+    @Value("${users.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${users.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    private record PendingUser(long line, UUID id, UserDTO user, String passwordHash) {
+    }
+
+    public UserImportReport importUsers(InputStream inputStream, Format format) throws IOException {
+        long start = System.nanoTime();
+        UserImportReport report = new UserImportReport();
+        // Usernames e e-mails já vistos no arquivo, para detectar duplicidade entre lotes
+        Set<String> seenUsernames = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+
+        try (UserImportReader reader = new UserImportReader(inputStream, format, objectMapper)) {
+            List<UserImportReader.Row> rows;
+            while (!(rows = reader.next(chunkSize)).isEmpty()) {
+                report.setTotal(report.getTotal() + rows.size());
+                importChunk(rows, seenUsernames, seenEmails, report);
+            }
+        }
+
+        report.setDurationMillis((System.nanoTime() - start) / 1_000_000);
+        log.info("Importação de usuários concluída: {} linhas, {} importadas, {} com erro em {} ms",
+                report.getTotal(), report.getImported(), report.getFailed(), report.getDurationMillis());
+        return report;
+    }
+
+    private void importChunk(List<UserImportReader.Row> rows, Set<String> seenUsernames, Set<String> seenEmails,
+                             UserImportReport report) {
+        List<UserImportReader.Row> valid = new ArrayList<>(rows.size());
+        for (UserImportReader.Row row : rows) {
+            String error = row.error() != null ? row.error() : validate(row.user());
+            if (error == null && !seenUsernames.add(normalize(row.user().getUsername()))) {
+                error = "Nome de usuário repetido no arquivo";
+            }
+            if (error == null && !seenEmails.add(normalize(row.user().getEmail()))) {
+                error = "E-mail repetido no arquivo";
+            }
+            if (error != null) {
+                reject(report, row.line(), row.user(), error);
+            } else {
+                valid.add(row);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        valid = rejectExisting(valid, report);
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        List<String> hashes = passwordEncoder.encodeAll(valid.stream().map(row -> row.user().getPassword()).toList());
+        List<PendingUser> pending = new ArrayList<>(valid.size());
+        for (int i = 0; i < valid.size(); i++) {
+            UserImportReader.Row row = valid.get(i);
+            pending.add(new PendingUser(row.line(), UuidV7.generate(), row.user(), hashes.get(i)));
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(pending));
+            report.setImported(report.getImported() + pending.size());
+        } catch (DataAccessException e) {
+            // Conflito concorrente ou restrição do banco: grava linha a linha para isolar as que falham
+            log.warn("Lote de importação falhou ({}), reprocessando linha a linha",
+                    e.getMostSpecificCause().getMessage());
+            for (PendingUser user : pending) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(List.of(user)));
+                    report.setImported(report.getImported() + 1);
+                } catch (DataAccessException rowException) {
+                    reject(report, user.line(), user.user(), rowException.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    private String validate(UserDTO user) {
+        Set<ConstraintViolation<UserDTO>> violations = validator.validate(user);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (user.getPassword() == null || user.getPassword().isBlank()) {
+            return "password: A senha é obrigatória";
+        }
+        return null;
+    }
+
+    // Compara pelo valor normalizado, como a checagem de duplicidade no arquivo e a de disponibilidade;
+    // atendida pelos índices em lower() da V5
+    private List<UserImportReader.Row> rejectExisting(List<UserImportReader.Row> rows, UserImportReport report) {
+        Map<String, Object> params = Map.of(
+                "usernames", rows.stream().map(row -> normalize(row.user().getUsername())).toList(),
+                "emails", rows.stream().map(row -> normalize(row.user().getEmail())).toList());
+        Set<String> existingUsernames = new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                "SELECT lower(username) FROM users WHERE lower(username) IN (:usernames)", params, String.class));
+        Set<String> existingEmails = new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                "SELECT lower(email) FROM users WHERE lower(email) IN (:emails)", params, String.class));
+        if (existingUsernames.isEmpty() && existingEmails.isEmpty()) {
+            return rows;
+        }
+
+        List<UserImportReader.Row> remaining = new ArrayList<>(rows.size());
+        for (UserImportReader.Row row : rows) {
+            if (existingUsernames.contains(normalize(row.user().getUsername()))) {
+                reject(report, row.line(), row.user(), "Nome de usuário já cadastrado");
+            } else if (existingEmails.contains(normalize(row.user().getEmail()))) {
+                reject(report, row.line(), row.user(), "E-mail já cadastrado");
+            } else {
+                remaining.add(row);
+            }
+        }
+        return remaining;
+    }
+
+    private void insert(List<PendingUser> users) {
+        userBatchWriter.insert(users.stream()
+                .map(pending -> new UserBatchWriter.NewUser(pending.id(), pending.user(), pending.passwordHash(), true))
+                .toList());
+    }
+
+    private void reject(UserImportReport report, long line, UserDTO user, String message) {
+        report.setFailed(report.getFailed() + 1);
+        if (report.getErrors().size() < maxReportedErrors) {
+            report.getErrors().add(new UserImportError(line, user != null ? user.getUsername() : null, message));
+        }
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
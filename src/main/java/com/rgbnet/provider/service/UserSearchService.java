@@ -0,0 +1,441 @@
+package com.rgbnet.provider.service;
+
+import com.rgbnet.provider.dto.CursorPage;
+import com.rgbnet.provider.dto.UserSearchHit;
+import com.rgbnet.provider.event.UserChangedEvent;
+import com.rgbnet.provider.exception.BadRequestException;
+import com.rgbnet.provider.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// Busca de usuários para o autocomplete dos operadores, toda em memória: uma trie de termos responde prefixos e
+// listas de trigramas respondem termos com erro de digitação. Indexa username, nome completo, e-mail e telefone
+// (só dígitos). Cada termo da consulta precisa casar com o usuário; a pontuação soma, por termo, 3 para termo
+// exato, 2 para prefixo e a fração de trigramas em comum (a partir de search.min-similarity) para aproximação.
+// O índice é carregado de users na inicialização; as alterações deste nó entram após o commit e as dos outros
+// pelo tópico de eventos (UserSearchProjection, com search.feed.enabled). A recarga a cada
+// search.rebuild-interval-ms fica como rede de segurança. Em todos os caminhos vale a maior versão.
+@Slf4j
+@Service
+public class UserSearchService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_QUERY_TERMS = 5;
+    private static final double EXACT_SCORE = 3;
+    private static final double PREFIX_SCORE = 2;
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{Alnum}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private record Document(UUID id, long version, String username, String fullName, String email, String phone,
+                            boolean active, Set<String> terms, Set<String> trigrams) {
+
+        UserSearchHit toHit(double score) {
+            return UserSearchHit.builder()
+                    .id(id)
+                    .username(username)
+                    .fullName(fullName)
+                    .email(email)
+                    .phone(phone)
+                    .active(active)
+                    .score(score)
+                    .build();
+        }
+    }
+
+    private static final class TrieNode {
+
+        private final Map<Character, TrieNode> children = new HashMap<>(4);
+        private Set<UUID> ids;
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxCandidates;
+    private final int maxPostingSize;
+    private final double minSimilarity;
+
+    // Trie, listas de trigramas e documentos mudam juntos sob o lock de escrita; as buscas só leem
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Document> documents = new HashMap<>();
+    private final TrieNode root = new TrieNode();
+    private final Map<String, Set<UUID>> postings = new HashMap<>();
+    private int trieNodes;
+
+    private volatile boolean ready;
+    private final Timer queries;
+
+    public UserSearchService(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${search.max-candidates:5000}") int maxCandidates,
+            @Value("${search.max-posting-size:50000}") int maxPostingSize,
+            @Value("${search.min-similarity:0.5}") double minSimilarity
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxCandidates = maxCandidates;
+        this.maxPostingSize = maxPostingSize;
+        this.minSimilarity = minSimilarity;
+        this.queries = Timer.builder("user.search.query")
+                .description("Tempo de busca no índice em memória, sem serialização")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("user.search.documents", this, UserSearchService::size)
+                .description("Usuários no índice de busca")
+                .register(meterRegistry);
+        Gauge.builder("user.search.trigrams", this, service -> service.postings.size())
+                .description("Trigramas distintos no índice de busca")
+                .register(meterRegistry);
+        Gauge.builder("user.search.trie-nodes", this, UserSearchService::trieNodes)
+                .description("Nós da trie de termos do índice de busca")
+                .register(meterRegistry);
+    }
+
+    // cursor é o deslocamento devolvido pela página anterior; active nulo inclui usuários inativos
+    public CursorPage<UserSearchHit> search(String query, String cursor, int size, Boolean active) {
+        if (!ready) {
+            throw new ServiceUnavailableException("Índice de busca ainda em carga", 1);
+        }
+        int offset = decodeCursor(cursor);
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        if (terms.isEmpty()) {
+            throw new BadRequestException("Informe ao menos um termo de busca");
+        }
+
+        long start = System.nanoTime();
+        List<UserSearchHit> ranked;
+        lock.readLock().lock();
+        try {
+            ranked = rank(terms.stream().limit(MAX_QUERY_TERMS).toList(), active);
+        } finally {
+            lock.readLock().unlock();
+            queries.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        int from = Math.min(offset, ranked.size());
+        int to = Math.min(from + pageSize, ranked.size());
+        String nextCursor = to < ranked.size() ? String.valueOf(to) : null;
+        return new CursorPage<>(new ArrayList<>(ranked.subList(from, to)), nextCursor);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCommitted(UserChangedEvent event) {
+        apply(event);
+    }
+
+    // Também recebe pelo tópico as alterações de todos os nós; as deste já entraram após o commit e a regra de
+    // versão as ignora
+    public void apply(UserChangedEvent event) {
+        upsert(document(event.userId(), event.version() != null ? event.version() : 0L, event.username(),
+                event.fullName(), event.email(), event.phone(), event.active()));
+    }
+
+    // Carga em lote: lê users em streaming e aplica cada linha com a mesma regra de versão dos eventos
+    @Scheduled(fixedDelayString = "${search.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        long start = System.nanoTime();
+        try {
+            List<Document> batch = new ArrayList<>(1_000);
+            jdbcTemplate.query("SELECT id, version, username, full_name, email, phone, active FROM users", rs -> {
+                batch.add(document(rs.getObject("id", UUID.class), rs.getLong("version"), rs.getString("username"),
+                        rs.getString("full_name"), rs.getString("email"), rs.getString("phone"),
+                        rs.getBoolean("active")));
+                if (batch.size() == 1_000) {
+                    upsertAll(batch);
+                    batch.clear();
+                }
+            });
+            upsertAll(batch);
+            ready = true;
+            log.debug("Índice de busca recarregado em {} ms com {} usuário(s)",
+                    (System.nanoTime() - start) / 1_000_000, size());
+        } catch (DataAccessException e) {
+            // Mantém o índice atual; a próxima execução tenta de novo
+            log.warn("Falha ao recarregar o índice de busca: {}", e.getMessage());
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Nós da trie além da raiz; volta ao mesmo valor quando um termo sai e entra de novo no índice
+    int trieNodes() {
+        lock.readLock().lock();
+        try {
+            return trieNodes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<UserSearchHit> rank(List<String> terms, Boolean active) {
+        Map<UUID, Double> scores = null;
+        for (String term : terms) {
+            Map<UUID, Double> termScores = score(term);
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                Map<UUID, Double> combined = new HashMap<>();
+                for (Map.Entry<UUID, Double> entry : scores.entrySet()) {
+                    Double termScore = termScores.get(entry.getKey());
+                    if (termScore != null) {
+                        combined.put(entry.getKey(), entry.getValue() + termScore);
+                    }
+                }
+                scores = combined;
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        List<UserSearchHit> hits = new ArrayList<>(scores.size());
+        for (Map.Entry<UUID, Double> entry : scores.entrySet()) {
+            Document document = documents.get(entry.getKey());
+            if (document != null && (active == null || document.active() == active)) {
+                hits.add(document.toHit(entry.getValue()));
+            }
+        }
+        hits.sort(Comparator.comparingDouble(UserSearchHit::getScore).reversed()
+                .thenComparing(UserSearchHit::getUsername));
+        return hits;
+    }
+
+    private Map<UUID, Double> score(String term) {
+        Map<UUID, Double> scores = new HashMap<>();
+        for (UUID id : prefixMatches(term)) {
+            Document document = documents.get(id);
+            scores.put(id, document != null && document.terms().contains(term) ? EXACT_SCORE : PREFIX_SCORE);
+        }
+
+        if (term.length() >= 3) {
+            // Trigramas muito comuns (domínios de e-mail, sobrenomes frequentes) não discriminam e custariam
+            // percorrer boa parte do índice: ficam fora da consulta e do denominador
+            Map<UUID, Integer> shared = new HashMap<>();
+            int considered = 0;
+            for (String trigram : trigrams(term)) {
+                Set<UUID> ids = postings.get(trigram);
+                if (ids != null && ids.size() > maxPostingSize) {
+                    continue;
+                }
+                considered++;
+                if (ids != null) {
+                    ids.forEach(id -> shared.merge(id, 1, Integer::sum));
+                }
+            }
+            for (Map.Entry<UUID, Integer> entry : shared.entrySet()) {
+                double similarity = (double) entry.getValue() / considered;
+                if (similarity >= minSimilarity) {
+                    scores.merge(entry.getKey(), similarity, Math::max);
+                }
+            }
+        }
+        return scores;
+    }
+
+    // Ids cujos termos começam com o prefixo, até search.max-candidates
+    private Set<UUID> prefixMatches(String prefix) {
+        TrieNode node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        Set<UUID> ids = new HashSet<>();
+        if (node == null) {
+            return ids;
+        }
+        Deque<TrieNode> pending = new ArrayDeque<>();
+        pending.push(node);
+        while (!pending.isEmpty() && ids.size() < maxCandidates) {
+            TrieNode current = pending.pop();
+            if (current.ids != null) {
+                ids.addAll(current.ids);
+            }
+            current.children.values().forEach(pending::push);
+        }
+        return ids;
+    }
+
+    private void upsert(Document document) {
+        lock.writeLock().lock();
+        try {
+            apply(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void upsertAll(List<Document> batch) {
+        lock.writeLock().lock();
+        try {
+            batch.forEach(this::apply);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Document document) {
+        Document existing = documents.get(document.id());
+        if (existing != null) {
+            if (existing.version() >= document.version()) {
+                return;
+            }
+            remove(existing);
+        }
+        documents.put(document.id(), document);
+        for (String term : document.terms()) {
+            TrieNode node = root;
+            for (int i = 0; i < term.length(); i++) {
+                TrieNode parent = node;
+                node = parent.children.get(term.charAt(i));
+                if (node == null) {
+                    node = new TrieNode();
+                    parent.children.put(term.charAt(i), node);
+                    trieNodes++;
+                }
+            }
+            if (node.ids == null) {
+                node.ids = new HashSet<>(2);
+            }
+            node.ids.add(document.id());
+        }
+        for (String trigram : document.trigrams()) {
+            postings.computeIfAbsent(trigram, key -> new HashSet<>()).add(document.id());
+        }
+    }
+
+    // Termos que deixam de existir (renomeações, e-mails trocados) levam junto os nós que só serviam a eles
+    private void remove(Document document) {
+        for (String term : document.terms()) {
+            removeTerm(term, document.id());
+        }
+        for (String trigram : document.trigrams()) {
+            Set<UUID> ids = postings.get(trigram);
+            if (ids != null && ids.remove(document.id()) && ids.isEmpty()) {
+                postings.remove(trigram);
+            }
+        }
+    }
+
+    private void removeTerm(String term, UUID id) {
+        TrieNode[] path = new TrieNode[term.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < term.length(); i++) {
+            path[i + 1] = path[i].children.get(term.charAt(i));
+            if (path[i + 1] == null) {
+                return;
+            }
+        }
+        TrieNode leaf = path[term.length()];
+        if (leaf.ids == null || !leaf.ids.remove(id)) {
+            return;
+        }
+        if (leaf.ids.isEmpty()) {
+            leaf.ids = null;
+        }
+        // Sobe podando enquanto o nó não guarda ids nem tem filhos
+        for (int i = term.length(); i > 0; i--) {
+            TrieNode node = path[i];
+            if (node.ids != null || !node.children.isEmpty()) {
+                return;
+            }
+            path[i - 1].children.remove(term.charAt(i - 1));
+            trieNodes--;
+        }
+    }
+
+    private static Document document(UUID id, long version, String username, String fullName, String email,
+                                     String phone, boolean active) {
+        Set<String> terms = new HashSet<>();
+        terms.addAll(tokenize(username));
+        terms.addAll(tokenize(fullName));
+        terms.addAll(tokenize(email));
+        // Username e e-mail inteiros também são termos, para casar "ana.silva@ex" por prefixo
+        for (String whole : new String[]{username, email}) {
+            if (whole != null && !whole.isBlank()) {
+                terms.add(normalize(whole));
+            }
+        }
+        if (phone != null) {
+            String digits = phone.replaceAll("\\D", "");
+            if (!digits.isEmpty()) {
+                terms.add(digits);
+            }
+        }
+        Set<String> trigrams = new HashSet<>();
+        for (String term : terms) {
+            trigrams.addAll(trigrams(term));
+        }
+        return new Document(id, version, username, fullName, email, phone, active, terms, trigrams);
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_ALPHANUMERIC.split(normalize(text))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    // Minúsculas e sem acentos: "João" e "joao" são o mesmo termo
+    static String normalize(String text) {
+        return MARKS.matcher(Normalizer.normalize(text.trim(), Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    // Trigramas com as bordas marcadas, para que início e fim do termo também contem
+    static Set<String> trigrams(String term) {
+        String padded = "  " + term + " ";
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    private static int decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Integer.parseInt(cursor));
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Cursor de busca inválido");
+        }
+    }
+}
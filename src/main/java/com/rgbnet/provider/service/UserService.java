@@ -1,47 +1,125 @@
 package com.rgbnet.provider.service;
 
 import com.rgbnet.provider.domain.User;
+import com.rgbnet.provider.domain.UserSnapshot;
+import com.rgbnet.provider.dto.CursorPage;
 import com.rgbnet.provider.dto.UserDTO;
+import com.rgbnet.provider.event.UserChangedEvent;
+import com.rgbnet.provider.event.UserEventOutbox;
+import com.rgbnet.provider.exception.PreconditionFailedException;
 import com.rgbnet.provider.exception.ResourceNotFoundException;
+import com.rgbnet.provider.repository.UserCommandRepository;
+import com.rgbnet.provider.repository.UserQueryRepository;
 import com.rgbnet.provider.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
+// Métodos públicos cronometrados pelo TimedAspect (user.service, tags class/method/exception)
 @Service
+@Timed("user.service")
 @RequiredArgsConstructor
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
+
+    public static final int MAX_PAGE_SIZE = 500;
 
     private final UserRepository userRepository;
+    private final UserQueryRepository userQueryRepository;
+    private final UserCommandRepository userCommandRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserDetailsCache userDetailsCache;
+    private final UserEventOutbox userEventOutbox;
+    private final UserDirectory userDirectory;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByUsername(username)
+        return userDetailsCache.get(username, key -> userRepository.findByUsername(key)
+                .map(UserSnapshot::from)
+                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + key)));
+    }
+
+    // Chamado pelo DaoAuthenticationProvider após um login bem-sucedido quando o hash precisa de upgrade
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        String username = userDetails.getUsername();
+        User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + username));
+        user.setPassword(newPassword);
+        userDetailsCache.invalidate(user.getUsername());
+        User savedUser = userRepository.save(user);
+        // A regravação incrementa @Version como qualquer escrita: o evento leva a nova versão ao diretório (ETag)
+        // e aos caches dos outros nós
+        userRepository.flush();
+        userEventOutbox.append(UserChangedEvent.of(UserChangedEvent.Type.UPDATED, savedUser));
+        return UserSnapshot.from(savedUser);
     }
 
     @Transactional(readOnly = true)
     public List<UserDTO> findAll() {
-        return userRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return userQueryRepository.findAll();
     }
 
+    // Paginação por keyset em (createdAt, id): o custo de cada página não depende da sua posição na tabela
     @Transactional(readOnly = true)
+    public CursorPage<UserDTO> findPage(String cursor, int size, Boolean active) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+
+        List<UserDTO> users;
+        if (cursor == null || cursor.isBlank()) {
+            users = userQueryRepository.findFirstPage(active, pageSize + 1);
+        } else {
+            UserCursor position = UserCursor.decode(cursor);
+            users = userQueryRepository.findPageAfter(position.createdAt(), position.id(), active, pageSize + 1);
+        }
+
+        boolean hasNext = users.size() > pageSize;
+        List<UserDTO> items = hasNext ? users.subList(0, pageSize) : users;
+
+        String nextCursor = null;
+        if (hasNext) {
+            UserDTO last = items.get(items.size() - 1);
+            nextCursor = new UserCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    // Sem @Transactional: com o diretório em memória pronto a consulta não abre conexão com o banco.
+    // Um miss (evento ainda não recebido por este nó) cai na consulta ao banco, transacional no repositório.
     public UserDTO findById(UUID id) {
-        User user = userRepository.findById(id)
+        return userDirectory.findById(id)
+                .or(() -> userQueryRepository.findById(id))
+                .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado com o ID: " + id));
+    }
+
+    // Versão atual para revalidar uma ETag (If-None-Match) sem montar o DTO nem buscar os papéis
+    public long findVersion(UUID id) {
+        return userDirectory.findVersion(id)
+                .or(() -> userQueryRepository.findVersion(id))
                 .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado com o ID: " + id));
-        return convertToDTO(user);
+    }
+
+    public UserDTO findByUsername(String username) {
+        return userDirectory.findByUsername(username)
+                .or(() -> userQueryRepository.findByUsername(username))
+                .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado: " + username));
+    }
+
+    public UserDTO findByEmail(String email) {
+        return userDirectory.findByEmail(email)
+                .or(() -> userQueryRepository.findByEmail(email))
+                .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado com o e-mail: " + email));
     }
 
     @Transactional
@@ -55,13 +133,21 @@ public class UserService implements UserDetailsService {
                 .roles(new HashSet<>(userDTO.getRoles()))
                 .build();
         
-        return convertToDTO(userRepository.save(user));
+        userDetailsCache.invalidate(user.getUsername());
+        User savedUser = userRepository.save(user);
+        userEventOutbox.append(UserChangedEvent.of(UserChangedEvent.Type.CREATED, savedUser));
+        return convertToDTO(savedUser);
     }
 
     @Transactional
     public UserDTO update(UUID id, UserDTO userDTO) {
-        User existingUser = userRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado com o ID: " + id));
+        return update(id, userDTO, null);
+    }
+
+    // expectedVersion vem do If-Match; null dispensa a verificação
+    @Transactional
+    public UserDTO update(UUID id, UserDTO userDTO, Long expectedVersion) {
+        User existingUser = findForUpdate(id, expectedVersion);
         
         existingUser.setFullName(userDTO.getFullName());
         existingUser.setEmail(userDTO.getEmail());
@@ -75,18 +161,81 @@ public class UserService implements UserDetailsService {
             existingUser.setPassword(passwordEncoder.encode(userDTO.getPassword()));
         }
         
-        return convertToDTO(userRepository.save(existingUser));
+        return saveUpdated(existingUser);
+    }
+
+    // PATCH: só os campos informados (não nulos) são alterados, em um único UPDATE com a versão no WHERE.
+    // O estado resultante é relido em uma consulta para a resposta e para o evento da outbox.
+    @Transactional
+    public UserDTO patch(UUID id, UserDTO changes, Long expectedVersion) {
+        String passwordHash = changes.getPassword() != null && !changes.getPassword().isBlank()
+                ? passwordEncoder.encode(changes.getPassword())
+                : null;
+        int updated = userCommandRepository.patch(id, expectedVersion, changes.getFullName(), changes.getEmail(),
+                changes.getPhone(), passwordHash, LocalDateTime.now());
+        if (updated == 0) {
+            throw notUpdated(id, expectedVersion);
+        }
+        if (changes.getRoles() != null && !changes.getRoles().isEmpty()) {
+            userCommandRepository.replaceRoles(id, changes.getRoles());
+        }
+        return afterBulkUpdate(id, UserChangedEvent.Type.UPDATED);
     }
 
     @Transactional
     public void delete(UUID id) {
+        delete(id, null);
+    }
+
+    // Exclusão lógica em um único UPDATE, sem carregar o usuário
+    @Transactional
+    public void delete(UUID id, Long expectedVersion) {
+        if (userCommandRepository.deactivate(id, expectedVersion, LocalDateTime.now()) == 0) {
+            throw notUpdated(id, expectedVersion);
+        }
+        afterBulkUpdate(id, UserChangedEvent.Type.DELETED);
+    }
+
+    // A comparação aqui recusa uma ETag antiga; uma alteração concorrente depois dela é barrada pelo @Version
+    // no UPDATE (OptimisticLockingFailureException, também respondida com 412)
+    private User findForUpdate(UUID id, Long expectedVersion) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado com o ID: " + id));
-        user.setActive(false);
-        userRepository.save(user);
+        if (expectedVersion != null && !expectedVersion.equals(user.getVersion())) {
+            throw new PreconditionFailedException(
+                    "Versão do usuário " + id + " é " + user.getVersion() + ", esperada " + expectedVersion);
+        }
+        return user;
+    }
+
+    // Nenhuma linha alterada: o usuário não existe ou a versão esperada não é mais a atual
+    private RuntimeException notUpdated(UUID id, Long expectedVersion) {
+        return userQueryRepository.findVersion(id)
+                .<RuntimeException>map(version -> new PreconditionFailedException(
+                        "Versão do usuário " + id + " é " + version + ", esperada " + expectedVersion))
+                .orElseGet(() -> new ResourceNotFoundException("Usuário não encontrado com o ID: " + id));
+    }
+
+    private UserDTO afterBulkUpdate(UUID id, UserChangedEvent.Type type) {
+        UserDTO user = userQueryRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado com o ID: " + id));
+        userDetailsCache.invalidate(user.getUsername());
+        userEventOutbox.append(UserChangedEvent.of(type, user));
+        return user;
+    }
+
+    private UserDTO saveUpdated(User existingUser) {
+        userDetailsCache.invalidate(existingUser.getUsername());
+        User savedUser = userRepository.save(existingUser);
+        // O UPDATE vai ao banco antes do evento: o evento leva a nova versão, e o lock da linha garante que
+        // eventos do mesmo usuário entram na outbox na ordem de commit
+        userRepository.flush();
+        userEventOutbox.append(UserChangedEvent.of(UserChangedEvent.Type.UPDATED, existingUser));
+        return convertToDTO(savedUser);
     }
 
-    private UserDTO convertToDTO(User user) {
+    // Package-private para o benchmark JMH em src/jmh
+    UserDTO convertToDTO(User user) {
         return UserDTO.builder()
                 .id(user.getId())
                 .username(user.getUsername())
@@ -97,6 +246,7 @@ public class UserService implements UserDetailsService {
                 .createdAt(user.getCreatedAt())
                 .updatedAt(user.getUpdatedAt())
                 .active(user.isActive())
+                .version(user.getVersion())
                 .build();
     }
 }
\ No newline at end of file
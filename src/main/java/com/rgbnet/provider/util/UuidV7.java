@@ -0,0 +1,33 @@
+package com.rgbnet.provider.util;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// UUID versão 7 (RFC 9562): 48 bits de timestamp em ms, 12 bits de contador e 62 bits aleatórios.
+// O par timestamp+contador avança por CAS, então os ids são estritamente crescentes dentro da JVM sem
+// bloqueio; a parte aleatória garante unicidade entre nós. Se o contador estoura dentro do mesmo ms,
+// o timestamp avança 1 ms à frente do relógio, como o RFC permite.
+public final class UuidV7 {
+
+    private static final int COUNTER_BITS = 12;
+    private static final long VERSION = 0x7L << 12;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final long RANDOM_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+    private static final AtomicLong STATE = new AtomicLong();
+
+    private UuidV7() {
+    }
+
+    public static UUID generate() {
+        long now = System.currentTimeMillis() << COUNTER_BITS;
+        long state = STATE.updateAndGet(previous -> now > previous ? now : previous + 1);
+
+        long timestamp = state >>> COUNTER_BITS;
+        long counter = state & ((1L << COUNTER_BITS) - 1);
+        long mostSigBits = (timestamp << 16) | VERSION | counter;
+        long leastSigBits = (ThreadLocalRandom.current().nextLong() & RANDOM_MASK) | VARIANT;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
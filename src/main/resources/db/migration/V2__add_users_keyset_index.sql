@@ -0,0 +1,2 @@
+-- Índice para paginação por keyset (created_at, id) na listagem de usuários
+CREATE INDEX IF NOT EXISTS idx_users_created_at_id ON users (created_at, id);
@@ -0,0 +1,9 @@
+-- Outbox transacional: eventos de alteração de usuário gravados na mesma transação da alteração
+-- e publicados no Kafka pelo UserOutboxRelay, que remove as linhas após a confirmação do broker
+CREATE TABLE IF NOT EXISTS user_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    aggregate_id UUID NOT NULL,
+    event_type VARCHAR(20) NOT NULL,
+    payload VARCHAR(4000) NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,3 @@
+-- Índices para as verificações de disponibilidade, que comparam username e e-mail sem diferenciar maiúsculas
+CREATE INDEX IF NOT EXISTS idx_users_lower_username ON users (lower(username));
+CREATE INDEX IF NOT EXISTS idx_users_lower_email ON users (lower(email));
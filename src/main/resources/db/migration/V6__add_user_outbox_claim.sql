@@ -0,0 +1,2 @@
+-- Reserva de lote do UserOutboxRelay: o envio ao broker acontece fora da transação que reservou as linhas
+ALTER TABLE user_outbox ADD COLUMN IF NOT EXISTS claimed_until TIMESTAMP;
@@ -0,0 +1,100 @@
+package com.rgbnet.provider.benchmark;
+
+import com.rgbnet.provider.ProviderApplication;
+import com.rgbnet.provider.dto.UserDTO;
+import com.rgbnet.provider.service.UserService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Compara o throughput dos endpoints existentes com requisições em threads de plataforma e em virtual threads.
+// ./gradlew benchmark --tests '*ExecutionModeBenchmark' -Dbenchmark.requests=5000 -Dbenchmark.concurrency=256
+@Tag("benchmark")
+class ExecutionModeBenchmark {
+
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 2_000);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 128);
+
+    @Test
+    void compareExecutionModes() throws Exception {
+        for (boolean virtualThreads : new boolean[]{false, true}) {
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ProviderApplication.class)
+                    .profiles("h2")
+                    .properties(
+                            "server.port=0",
+                            "server.undertow.threads.worker=32",
+                            "security.login-rate-limit.enabled=false",
+                            "spring.threads.virtual.enabled=" + virtualThreads)
+                    .run()) {
+                String port = context.getEnvironment().getProperty("local.server.port");
+                String baseUrl = "http://localhost:" + port + "/api";
+                context.getBean(UserService.class).create(UserDTO.builder()
+                        .username("benchmark")
+                        .password("benchmark123")
+                        .fullName("Benchmark User")
+                        .email("benchmark@example.com")
+                        .roles(Set.of("USER"))
+                        .build());
+
+                String mode = virtualThreads ? "virtual" : "platform";
+                run(mode, "GET /actuator/health", HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health"))
+                        .GET()
+                        .build());
+                run(mode, "POST /auth/login", HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"username\":\"benchmark\",\"password\":\"benchmark123\"}"))
+                        .build());
+            }
+        }
+    }
+
+    private void run(String mode, String endpoint, HttpRequest request) throws Exception {
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        long[] latencies = new long[REQUESTS];
+        List<Future<Integer>> responses = new ArrayList<>(REQUESTS);
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < REQUESTS; i++) {
+                int index = i;
+                inFlight.acquire();
+                responses.add(executor.submit(() -> {
+                    long requestStart = System.nanoTime();
+                    try {
+                        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    } finally {
+                        latencies[index] = System.nanoTime() - requestStart;
+                        inFlight.release();
+                    }
+                }));
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        for (Future<Integer> response : responses) {
+            assertEquals(200, response.get());
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%-8s %-22s %8.0f req/s  p50=%6.1fms  p99=%6.1fms%n",
+                mode, endpoint, REQUESTS / elapsedSeconds,
+                latencies[REQUESTS / 2] / 1e6, latencies[(int) (REQUESTS * 0.99)] / 1e6);
+    }
+}
@@ -0,0 +1,76 @@
+package com.rgbnet.provider.benchmark;
+
+import com.rgbnet.provider.dto.UserDTO;
+import com.rgbnet.provider.dto.UserImportReport;
+import com.rgbnet.provider.repository.UserRepository;
+import com.rgbnet.provider.service.UserImportService;
+import com.rgbnet.provider.service.UserService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Throughput da importação em lote contra o cadastro um a um via UserService.create.
+// ./gradlew benchmark --tests '*UserImportBenchmark' -Dbenchmark.users=5000
+@Tag("benchmark")
+@ActiveProfiles("h2")
+@SpringBootTest(properties = "security.password.bcrypt-strength=${benchmark.bcrypt-strength:10}")
+class UserImportBenchmark {
+
+    private static final int USERS = Integer.getInteger("benchmark.users", 1_000);
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void compareBulkImportWithOneByOne() throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < USERS; i++) {
+            userService.create(user("single" + i));
+        }
+        report("UserService.create", System.nanoTime() - start);
+
+        StringBuilder csv = new StringBuilder("username,password,fullName,email,phone,roles\n");
+        for (int i = 0; i < USERS; i++) {
+            csv.append("bulk").append(i).append(",password123,Bulk User,bulk").append(i)
+                    .append("@example.com,11999999999,USER\n");
+        }
+        start = System.nanoTime();
+        UserImportReport importReport = userImportService.importUsers(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)),
+                UserImportService.Format.CSV);
+        report("UserImportService", System.nanoTime() - start);
+
+        assertEquals(USERS, importReport.getImported());
+        assertEquals(2L * USERS, userRepository.count());
+    }
+
+    private static UserDTO user(String username) {
+        return UserDTO.builder()
+                .username(username)
+                .password("password123")
+                .fullName("Single User")
+                .email(username + "@example.com")
+                .phone("11999999999")
+                .roles(Set.of("USER"))
+                .build();
+    }
+
+    private static void report(String path, long elapsedNanos) {
+        System.out.printf("%-20s %6d usuários em %7.0f ms  (%8.1f usuários/s)%n",
+                path, USERS, elapsedNanos / 1e6, USERS / (elapsedNanos / 1e9));
+    }
+}
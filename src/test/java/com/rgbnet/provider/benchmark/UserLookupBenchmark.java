@@ -0,0 +1,98 @@
+package com.rgbnet.provider.benchmark;
+
+import com.rgbnet.provider.dto.UserDTO;
+import com.rgbnet.provider.repository.UserRepository;
+import com.rgbnet.provider.service.UserService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.IntConsumer;
+
+// Latência de UserRepository.findById e findByUsername (cada um na sua transação somente leitura, como no
+// UserService) com o cache de segundo nível ligado e desligado; as duas variantes sobem contextos separados.
+// ./gradlew benchmark --tests '*UserLookupBenchmark*' -Dbenchmark.users=20000 -Dbenchmark.lookups=200000
+abstract class UserLookupBenchmark {
+
+    private static final int USERS = Integer.getInteger("benchmark.users", 5_000);
+    private static final int LOOKUPS = Integer.getInteger("benchmark.lookups", 50_000);
+
+    @Tag("benchmark")
+    @SpringBootTest(properties = "security.password.bcrypt-strength=4")
+    @ActiveProfiles("h2")
+    static class WithCache extends UserLookupBenchmark {
+    }
+
+    @Tag("benchmark")
+    @SpringBootTest(properties = {
+            "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+            "security.password.bcrypt-strength=4"
+    })
+    @ActiveProfiles("h2")
+    static class WithoutCache extends UserLookupBenchmark {
+    }
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void measureLookups() {
+        String mode = getClass().getSimpleName();
+        String prefix = "lookup" + UUID.randomUUID().toString().substring(0, 6) + "-";
+        List<UUID> ids = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            ids.add(userService.create(UserDTO.builder()
+                    .username(prefix + i)
+                    .password("benchmark123")
+                    .fullName("Lookup User " + i)
+                    .email(prefix + i + "@example.com")
+                    .roles(Set.of("USER", "SUPPORT"))
+                    .build()).getId());
+        }
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        Random random = new Random(42);
+        // A primeira passada percorre todos os usuários: aquece a JVM e, com o cache ligado, popula as regiões
+        for (boolean measure : new boolean[]{false, true}) {
+            run(mode, "findById", measure, random, i -> readOnly.executeWithoutResult(
+                    status -> userRepository.findById(ids.get(i)).orElseThrow().getRoles().size()));
+            run(mode, "findByUsername", measure, random, i -> readOnly.executeWithoutResult(
+                    status -> userRepository.findByUsername(prefix + i).orElseThrow().getRoles().size()));
+        }
+    }
+
+    private static void run(String mode, String lookup, boolean measure, Random random, IntConsumer body) {
+        int lookups = measure ? LOOKUPS : USERS;
+        long[] latencies = new long[lookups];
+        for (int i = 0; i < lookups; i++) {
+            int index = measure ? random.nextInt(USERS) : i;
+            long start = System.nanoTime();
+            body.accept(index);
+            latencies[i] = System.nanoTime() - start;
+        }
+        if (!measure) {
+            return;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%-12s %-15s média %8.1f us  p50 %8.1f us  p99 %8.1f us%n", mode, lookup,
+                Arrays.stream(latencies).average().orElse(0) / 1e3,
+                latencies[latencies.length / 2] / 1e3,
+                latencies[(int) Math.min(latencies.length - 1, Math.ceil(latencies.length * 0.99) - 1)] / 1e3);
+    }
+}
@@ -0,0 +1,104 @@
+package com.rgbnet.provider.benchmark;
+
+import com.rgbnet.provider.service.UserSearchService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+// Carga do índice de busca e latência das consultas de autocomplete (prefixo curto, termo completo, termo com erro
+// de digitação e dois termos) sobre usuários com nomes sintéticos gravados direto em users.
+// ./gradlew benchmark --tests '*UserSearchBenchmark' -Dbenchmark.users=500000 -Dbenchmark.queries=20000
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("h2")
+class UserSearchBenchmark {
+
+    private static final int USERS = Integer.getInteger("benchmark.users", 100_000);
+    private static final int QUERIES = Integer.getInteger("benchmark.queries", 10_000);
+    private static final String[] FIRST_NAMES = {"ana", "bruno", "carla", "daniel", "eduarda", "felipe", "gabriela",
+            "henrique", "isabela", "joão", "karina", "lucas", "mariana", "nicolas", "otávio", "patrícia"};
+    private static final String[] LAST_NAMES = {"silva", "santos", "oliveira", "souza", "rodrigues", "ferreira",
+            "alves", "pereira", "lima", "gomes", "conceição", "ribeiro", "carvalho", "almeida", "lopes", "barbosa"};
+
+    @Autowired
+    private UserSearchService userSearchService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void measureRebuildAndQueries() {
+        seed();
+
+        long start = System.nanoTime();
+        userSearchService.rebuild();
+        System.out.printf("carga       %8d usuários em %8.0f ms%n", userSearchService.size(),
+                (System.nanoTime() - start) / 1e6);
+
+        Random random = new Random(42);
+        run("prefixo", () -> FIRST_NAMES[random.nextInt(FIRST_NAMES.length)].substring(0, 2));
+        run("termo", () -> LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+        run("aproximado", () -> typo(LAST_NAMES[random.nextInt(LAST_NAMES.length)], random));
+        run("dois termos", () -> FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                + LAST_NAMES[random.nextInt(LAST_NAMES.length)].substring(0, 3));
+    }
+
+    private void run(String name, Supplier<String> queries) {
+        for (int i = 0; i < QUERIES / 4; i++) {
+            userSearchService.search(queries.get(), null, 20, null);
+        }
+        long[] latencies = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String query = queries.get();
+            long start = System.nanoTime();
+            userSearchService.search(query, null, 20, null);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%-11s média %8.3f ms  p50 %8.3f ms  p99 %8.3f ms%n", name,
+                Arrays.stream(latencies).average().orElse(0) / 1e6,
+                latencies[latencies.length / 2] / 1e6,
+                latencies[(int) Math.min(latencies.length - 1, Math.ceil(latencies.length * 0.99) - 1)] / 1e6);
+    }
+
+    // Troca uma letra do meio: "oliveira" -> "olixeira"
+    private static String typo(String term, Random random) {
+        char[] chars = term.toCharArray();
+        chars[1 + random.nextInt(chars.length - 2)] = 'x';
+        return new String(chars);
+    }
+
+    private void seed() {
+        Random random = new Random(7);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(1_000);
+        for (int i = 0; i < USERS; i++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            String username = "search" + i;
+            batch.add(new Object[]{UUID.randomUUID(), username, "-", first + " " + last, username + "@example.com",
+                    String.format("119%08d", i), now, now});
+            if (batch.size() == 1_000 || i == USERS - 1) {
+                jdbcTemplate.batchUpdate("""
+                        INSERT INTO users (id, username, password, full_name, email, phone,
+                            account_non_expired, account_non_locked, credentials_non_expired, enabled, active,
+                            version, created_at, updated_at)
+                        VALUES (?, ?, ?, ?, ?, ?, TRUE, TRUE, TRUE, TRUE, TRUE, 0, ?, ?)
+                        """, batch);
+                batch.clear();
+            }
+        }
+    }
+}
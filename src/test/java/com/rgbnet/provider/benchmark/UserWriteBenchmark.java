@@ -0,0 +1,132 @@
+package com.rgbnet.provider.benchmark;
+
+import com.rgbnet.provider.domain.User;
+import com.rgbnet.provider.dto.UserDTO;
+import com.rgbnet.provider.event.UserChangedEvent;
+import com.rgbnet.provider.event.UserEventOutbox;
+import com.rgbnet.provider.repository.UserRepository;
+import com.rgbnet.provider.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+// Instruções SQL e latência por operação: o caminho antigo do UserService (carregar a entidade, alterar,
+// save + flush) contra os UPDATEs em massa do UserCommandRepository. Conta as instruções preparadas pelo
+// Hibernate (users e user_roles); o INSERT da outbox é o mesmo nos dois caminhos e fica de fora da contagem.
+// ./gradlew benchmark --tests '*UserWriteBenchmark' -Dbenchmark.operations=5000
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "security.password.bcrypt-strength=4"
+})
+@ActiveProfiles("h2")
+class UserWriteBenchmark {
+
+    private static final int OPERATIONS = Integer.getInteger("benchmark.operations", 2_000);
+    private static final int WARMUP_OPERATIONS = Math.max(OPERATIONS / 4, 100);
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserEventOutbox userEventOutbox;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private interface Operation {
+        void apply(UUID id, int index);
+    }
+
+    @Test
+    void compareLoadThenSaveWithBulkUpdates() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (boolean measure : new boolean[]{false, true}) {
+            int operations = measure ? OPERATIONS : WARMUP_OPERATIONS;
+            List<UUID> ids = createUsers(operations, measure ? "bench" : "warmup");
+
+            run(statistics, measure, "patch fullName", "load+save", ids, (id, i) ->
+                    loadThenSave(id, UserChangedEvent.Type.UPDATED, user -> user.setFullName("Antes " + i)));
+            run(statistics, measure, "patch fullName", "bulk", ids, (id, i) ->
+                    userService.patch(id, UserDTO.builder().fullName("Depois " + i).build(), null));
+
+            // Cada passada troca um papel de todos os usuários: SUPPORT -> BILLING -> SUPPORT
+            run(statistics, measure, "patch roles", "load+save", ids, (id, i) ->
+                    loadThenSave(id, UserChangedEvent.Type.UPDATED,
+                            user -> user.setRoles(new HashSet<>(Set.of("USER", "BILLING")))));
+            run(statistics, measure, "patch roles", "bulk", ids, (id, i) ->
+                    userService.patch(id, UserDTO.builder().roles(Set.of("USER", "SUPPORT")).build(), null));
+
+            run(statistics, measure, "soft delete", "load+save", ids, (id, i) ->
+                    loadThenSave(id, UserChangedEvent.Type.DELETED, user -> user.setActive(false)));
+            run(statistics, measure, "soft delete", "bulk", ids, (id, i) -> userService.delete(id));
+        }
+    }
+
+    // O caminho anterior ao UserCommandRepository, como era no UserService
+    private void loadThenSave(UUID id, UserChangedEvent.Type type, Consumer<User> change) {
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.findById(id).orElseThrow();
+            change.accept(user);
+            userRepository.save(user);
+            userRepository.flush();
+            userEventOutbox.append(UserChangedEvent.of(type, user));
+        });
+    }
+
+    private static void run(Statistics statistics, boolean measure, String operation, String path, List<UUID> ids,
+                            Operation body) {
+        long[] latencies = new long[ids.size()];
+        statistics.clear();
+        for (int i = 0; i < ids.size(); i++) {
+            long start = System.nanoTime();
+            body.apply(ids.get(i), i);
+            latencies[i] = System.nanoTime() - start;
+        }
+        long statements = statistics.getPrepareStatementCount();
+        if (!measure) {
+            return;
+        }
+
+        Arrays.sort(latencies);
+        System.out.printf("%-15s %-10s %6.2f instruções/op  média %8.1f us  p50 %8.1f us  p99 %8.1f us%n",
+                operation, path, (double) statements / ids.size(),
+                Arrays.stream(latencies).average().orElse(0) / 1e3,
+                latencies[latencies.length / 2] / 1e3,
+                latencies[(int) Math.min(latencies.length - 1, Math.ceil(latencies.length * 0.99) - 1)] / 1e3);
+    }
+
+    private List<UUID> createUsers(int count, String prefix) {
+        List<UUID> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(userService.create(UserDTO.builder()
+                    .username(prefix + i)
+                    .password("benchmark123")
+                    .fullName("Benchmark User " + i)
+                    .email(prefix + i + "@example.com")
+                    .roles(Set.of("USER", "SUPPORT"))
+                    .build()).getId());
+        }
+        return ids;
+    }
+}
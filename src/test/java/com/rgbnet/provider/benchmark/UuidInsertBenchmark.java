@@ -0,0 +1,91 @@
+package com.rgbnet.provider.benchmark;
+
+import com.rgbnet.provider.util.UuidV7;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+// Throughput de inserção e tamanho dos índices com chaves UUIDv4 (aleatórias) contra UUIDv7 (ordenadas no tempo).
+// As tabelas reproduzem a chave primária de users e o índice (user_id, role) de user_roles.
+// ./gradlew benchmark --tests '*UuidInsertBenchmark' -Dbenchmark.rows=5000000
+@Tag("benchmark")
+@Testcontainers
+class UuidInsertBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 1_000_000);
+    private static final int BATCH_SIZE = 1_000;
+
+    @Container
+    static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @Test
+    void compareRandomAndTimeOrderedKeys() throws SQLException {
+        String url = postgreSQLContainer.getJdbcUrl() + "&reWriteBatchedInserts=true";
+        try (Connection connection = DriverManager.getConnection(url,
+                postgreSQLContainer.getUsername(), postgreSQLContainer.getPassword())) {
+            run(connection, "v4", UUID::randomUUID);
+            run(connection, "v7", UuidV7::generate);
+        }
+    }
+
+    private static void run(Connection connection, String name, Supplier<UUID> ids) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table users_" + name + " (id uuid primary key, username varchar(50) not null)");
+            statement.execute("create table user_roles_" + name
+                    + " (user_id uuid not null, role varchar(50) not null)");
+            statement.execute("create index idx_user_roles_" + name + " on user_roles_" + name + " (user_id, role)");
+        }
+
+        connection.setAutoCommit(false);
+        long start = System.nanoTime();
+        try (PreparedStatement users = connection.prepareStatement(
+                "insert into users_" + name + " (id, username) values (?, ?)");
+             PreparedStatement roles = connection.prepareStatement(
+                     "insert into user_roles_" + name + " (user_id, role) values (?, 'USER')")) {
+            for (int i = 1; i <= ROWS; i++) {
+                UUID id = ids.get();
+                users.setObject(1, id);
+                users.setString(2, "user" + i);
+                users.addBatch();
+                roles.setObject(1, id);
+                roles.addBatch();
+                if (i % BATCH_SIZE == 0 || i == ROWS) {
+                    users.executeBatch();
+                    roles.executeBatch();
+                    connection.commit();
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        connection.setAutoCommit(true);
+
+        System.out.printf("%s  %8d linhas em %8.0f ms  (%9.1f linhas/s)  pk: %6.1f MB  user_roles idx: %6.1f MB%n",
+                name, ROWS, elapsed / 1e6, ROWS / (elapsed / 1e9),
+                relationSize(connection, "users_" + name + "_pkey"),
+                relationSize(connection, "idx_user_roles_" + name));
+    }
+
+    private static double relationSize(Connection connection, String relation) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("select pg_relation_size(?::regclass)")) {
+            statement.setString(1, relation);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getLong(1) / (1024.0 * 1024.0);
+            }
+        }
+    }
+}
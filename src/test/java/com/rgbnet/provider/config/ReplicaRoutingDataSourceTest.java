@@ -0,0 +1,134 @@
+package com.rgbnet.provider.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Primário e réplicas são bancos H2 em memória distintos; cada um responde o próprio nome em node
+class ReplicaRoutingDataSourceTest {
+
+    private static final String LAG_QUERY = "SELECT seconds FROM replica_lag";
+
+    private HikariDataSource primary;
+    private HikariDataSource replica0;
+    private HikariDataSource replica1;
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        primary = h2("primary");
+        replica0 = h2("replica-0");
+        replica1 = h2("replica-1");
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.close();
+        replica0.close();
+        replica1.close();
+    }
+
+    @Test
+    @DisplayName("Deve mandar transações readOnly à réplica e escritas ou acessos sem transação ao primário")
+    void routesByTransactionReadOnlyFlag() {
+        // Arrange
+        route(ReplicaRoutingDataSource.Strategy.LEAST_IN_FLIGHT, replica0);
+
+        // Act & Assert
+        assertEquals("replica-0", readOnly.execute(status -> node()));
+        assertEquals("primary", readWrite.execute(status -> node()));
+        assertEquals("primary", node());
+    }
+
+    @Test
+    @DisplayName("Deve voltar ao primário enquanto a réplica estiver além do atraso máximo")
+    void fallsBackToPrimaryWhenReplicaLags() {
+        // Arrange
+        route(ReplicaRoutingDataSource.Strategy.LEAST_IN_FLIGHT, replica0);
+        lag(replica0, 10);
+
+        // Act
+        routing.checkReplicas();
+        String lagging = readOnly.execute(status -> node());
+        lag(replica0, 0.5);
+        routing.checkReplicas();
+        String recovered = readOnly.execute(status -> node());
+
+        // Assert
+        assertEquals("primary", lagging);
+        assertEquals("replica-0", recovered);
+    }
+
+    @Test
+    @DisplayName("Deve alternar entre as réplicas saudáveis no rodízio")
+    void roundRobinSkipsUnhealthyReplicas() {
+        // Arrange
+        route(ReplicaRoutingDataSource.Strategy.ROUND_ROBIN, replica0, replica1);
+
+        // Act
+        List<String> balanced = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            balanced.add(readOnly.execute(status -> node()));
+        }
+        new JdbcTemplate(replica1).execute("DROP TABLE replica_lag");
+        routing.checkReplicas();
+        List<String> degraded = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            degraded.add(readOnly.execute(status -> node()));
+        }
+
+        // Assert
+        assertEquals(List.of("replica-0", "replica-1", "replica-0", "replica-1"), balanced);
+        assertEquals(List.of("replica-0", "replica-0"), degraded);
+    }
+
+    private void route(ReplicaRoutingDataSource.Strategy strategy, HikariDataSource... replicas) {
+        routing = new ReplicaRoutingDataSource(primary, List.of(replicas), strategy, LAG_QUERY, 1_000,
+                new SimpleMeterRegistry());
+        routing.afterPropertiesSet();
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    private String node() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static void lag(HikariDataSource replica, double seconds) {
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET seconds = ?", seconds);
+    }
+
+    private static HikariDataSource h2(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setMaximumPoolSize(2);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+        jdbcTemplate.execute("CREATE TABLE replica_lag (seconds DOUBLE PRECISION)");
+        jdbcTemplate.update("INSERT INTO replica_lag VALUES (0)");
+        return dataSource;
+    }
+}
@@ -0,0 +1,41 @@
+package com.rgbnet.provider.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Lint sobre o código-fonte da aplicação: só enxerga synchronized escrito aqui, não bibliotecas nem frames
+// nativos. A fixação de virtual threads em execução é verificada pelo VirtualThreadPinningTest.
+class SynchronizedLintTest {
+
+    private static final Pattern SYNCHRONIZED = Pattern.compile("^(?!\\s*//).*\\bsynchronized\\b", Pattern.MULTILINE);
+
+    @Test
+    @DisplayName("Lint: o código da aplicação usa ReentrantLock em vez de synchronized")
+    void noSynchronizedBlocksInMainSources() throws IOException {
+        try (Stream<Path> sources = Files.walk(Path.of("src/main/java"))) {
+            List<Path> offenders = sources
+                    .filter(path -> path.toString().endsWith(".java"))
+                    .filter(SynchronizedLintTest::usesSynchronized)
+                    .toList();
+
+            assertTrue(offenders.isEmpty(), "Use ReentrantLock em vez de synchronized em: " + offenders);
+        }
+    }
+
+    private static boolean usesSynchronized(Path path) {
+        try {
+            return SYNCHRONIZED.matcher(Files.readString(path)).find();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
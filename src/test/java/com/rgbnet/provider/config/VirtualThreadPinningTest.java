@@ -0,0 +1,163 @@
+package com.rgbnet.provider.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rgbnet.provider.dto.AuthResponse;
+import com.rgbnet.provider.dto.UserDTO;
+import com.rgbnet.provider.service.UserService;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sobe a aplicação com as requisições em virtual threads, faz logins e consultas concorrentes e falha se alguma
+// virtual thread bloqueou presa à carrier thread. Usa o evento jdk.VirtualThreadPinned do JFR, emitido no mesmo
+// ponto em que -Djdk.tracePinnedThreads imprime a pilha, então pega também bibliotecas e frames nativos.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.threads.virtual.enabled=true",
+        "security.password.bcrypt-strength=4",
+        "security.login-rate-limit.enabled=false",
+        // Todos os clientes podem esperar um hash ao mesmo tempo sem o 503 de saturação
+        "server.undertow.threads.worker=64",
+        "security.password.hashing.max-in-flight=48"
+})
+@ActiveProfiles("h2")
+class VirtualThreadPinningTest {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int CLIENTS = 32;
+    private static final int REQUESTS_PER_CLIENT = 15;
+
+    private static final Queue<RecordedEvent> PINNED = new ConcurrentLinkedQueue<>();
+    private static RecordingStream recording;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Antes do contexto subir, para cobrir também o que roda em virtual threads na inicialização
+    @BeforeAll
+    static void startRecording() {
+        recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(Duration.ZERO).withStackTrace();
+        recording.onEvent(PINNED_EVENT, PINNED::add);
+        recording.startAsync();
+    }
+
+    @AfterAll
+    static void closeRecording() {
+        recording.close();
+    }
+
+    @Test
+    @DisplayName("Não deve fixar virtual threads na carrier thread durante logins e consultas concorrentes")
+    void requestsDoNotPinCarrierThreads() throws Exception {
+        // Arrange
+        UserDTO user = userService.create(UserDTO.builder()
+                .username("pinning")
+                .password("pinning123")
+                .fullName("Pinning User")
+                .email("pinning@example.com")
+                .roles(Set.of("ADMIN"))
+                .build());
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        String baseUrl = "http://localhost:" + port;
+        HttpResponse<String> login = client.send(login(baseUrl), HttpResponse.BodyHandlers.ofString());
+        String token = objectMapper.readValue(login.body(), AuthResponse.class).getToken();
+        List<HttpRequest> requests = List.of(
+                login(baseUrl),
+                authorized(baseUrl + "/users/" + user.getId(), token),
+                authorized(baseUrl + "/users/lookup?username=pinning", token),
+                authorized(baseUrl + "/users?size=10", token));
+        // Uma passada sequencial primeiro: caches preenchidos uma única vez pelo framework (atributos do
+        // @PreAuthorize, calculados dentro de ConcurrentHashMap.computeIfAbsent) fixariam a thread só na disputa
+        // da primeira chamada, o que não se repete em regime
+        for (HttpRequest request : requests) {
+            assertEquals(200, client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+        }
+
+        List<Callable<Integer>> clients = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            int offset = i;
+            clients.add(() -> {
+                for (int j = 0; j < REQUESTS_PER_CLIENT; j++) {
+                    HttpRequest request = requests.get((offset + j) % requests.size());
+                    int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    if (status != 200) {
+                        return status;
+                    }
+                }
+                return 200;
+            });
+        }
+
+        // Act
+        List<Future<Integer>> results;
+        try (ExecutorService executor = Executors.newFixedThreadPool(CLIENTS)) {
+            results = executor.invokeAll(clients);
+        }
+        // Descarrega os eventos ainda em buffer antes da verificação
+        recording.stop();
+
+        // Assert
+        assertEquals(200, login.statusCode());
+        for (Future<Integer> result : results) {
+            assertEquals(200, result.get());
+        }
+        assertTrue(PINNED.isEmpty(), () -> PINNED.size() + " virtual thread(s) fixada(s) na carrier thread:\n"
+                + PINNED.stream().map(VirtualThreadPinningTest::describe).collect(Collectors.joining("\n\n")));
+    }
+
+    private static HttpRequest login(String baseUrl) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"pinning\",\"password\":\"pinning123\"}"))
+                .build();
+    }
+
+    private static HttpRequest authorized(String url, String token) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    private static String describe(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return event.getDuration() + " (sem pilha)";
+        }
+        return event.getDuration() + "\n" + event.getStackTrace().getFrames().stream()
+                .map(RecordedFrame::getMethod)
+                .map(method -> "    at " + method.getType().getName() + "." + method.getName())
+                .collect(Collectors.joining("\n"));
+    }
+}
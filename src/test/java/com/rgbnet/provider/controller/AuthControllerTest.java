@@ -2,76 +2,63 @@ package com.rgbnet.provider.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.rgbnet.provider.dto.AuthRequest;
+import com.rgbnet.provider.dto.RefreshRequest;
 import com.rgbnet.provider.security.JwtTokenProvider;
+import com.rgbnet.provider.security.RevokedAccessTokens;
+import com.rgbnet.provider.service.RefreshTokenService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.config.annotation.web.builders.HttpSecurity;
-import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
 import java.util.ArrayList;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
-import static org.springframework.security.config.Customizer.withDefaults;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(AuthController.class)
-@Import(AuthControllerTest.TestSecurityConfig.class)
+@Import(SecurityTestConfig.class)
 public class AuthControllerTest {
 
-    @Configuration
-    @EnableWebSecurity
-    static class TestSecurityConfig {
-        @Bean
-        public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
-            return http
-                    .csrf(csrf -> csrf.disable())
-                    .authorizeHttpRequests(auth -> auth
-                            .anyRequest().permitAll()
-                    )
-                    .httpBasic(withDefaults())
-                    .build();
-        }
-        
-        @Bean
-        public UserDetailsService testUserDetailsService() {
-            return username -> User.withUsername(username)
-                    .password("password")
-                    .authorities("ROLE_USER")
-                    .build();
-        }
-    }
-    
     @Autowired
     private MockMvc mockMvc;
 
     @Autowired
     private ObjectMapper objectMapper;
 
+    // O @EnableJpaAuditing da ProviderApplication precisa de um contexto de mapeamento JPA, que o @WebMvcTest não sobe
+    @MockBean
+    private JpaMetamodelMappingContext jpaMetamodelMappingContext;
+
     @MockBean
     private AuthenticationManager authenticationManager;
 
     @MockBean
     private JwtTokenProvider jwtTokenProvider;
 
+    @MockBean
+    private RefreshTokenService refreshTokenService;
+
+    @MockBean
+    private RevokedAccessTokens revokedAccessTokens;
+
     @Test
     @DisplayName("Deve autenticar o usuário e retornar um token JWT")
     void loginSuccess() throws Exception {
@@ -85,14 +72,50 @@ public class AuthControllerTest {
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenReturn(authentication);
         when(authentication.getPrincipal()).thenReturn(userDetails);
-        when(jwtTokenProvider.generateToken(userDetails)).thenReturn(token);
+        JwtTokenProvider.IssuedToken issuedToken = new JwtTokenProvider.IssuedToken(token, "jti",
+                Instant.now().plusSeconds(900));
+        when(jwtTokenProvider.issue(userDetails)).thenReturn(issuedToken);
+        when(refreshTokenService.issue("admin", issuedToken)).thenReturn("refresh.token.example");
         
         // Act & Assert
         mockMvc.perform(post("/auth/login")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(authRequest)))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.token").value(token));
+                .andExpect(jsonPath("$.token").value(token))
+                .andExpect(jsonPath("$.refreshToken").value("refresh.token.example"));
+    }
+
+    @Test
+    @DisplayName("Deve trocar o refresh token por um novo par de tokens")
+    void refreshSuccess() throws Exception {
+        // Arrange
+        JwtTokenProvider.IssuedToken issuedToken = new JwtTokenProvider.IssuedToken("new.access.token", "jti",
+                Instant.now().plusSeconds(900));
+        when(refreshTokenService.rotate(eq("old.refresh.token"), any()))
+                .thenReturn(new RefreshTokenService.Rotation(issuedToken, "new.refresh.token"));
+
+        // Act & Assert
+        mockMvc.perform(post("/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RefreshRequest("old.refresh.token"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value("new.access.token"))
+                .andExpect(jsonPath("$.refreshToken").value("new.refresh.token"));
+    }
+
+    @Test
+    @DisplayName("Deve recusar refresh token reutilizado com 401")
+    void refreshReused() throws Exception {
+        // Arrange
+        when(refreshTokenService.rotate(eq("used.refresh.token"), any()))
+                .thenThrow(new BadCredentialsException("Refresh token já utilizado; a sessão foi encerrada"));
+
+        // Act & Assert
+        mockMvc.perform(post("/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RefreshRequest("used.refresh.token"))))
+                .andExpect(status().isUnauthorized());
     }
 
     @Test
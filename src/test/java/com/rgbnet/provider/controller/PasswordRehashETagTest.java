@@ -0,0 +1,119 @@
+package com.rgbnet.provider.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rgbnet.provider.dto.AuthResponse;
+import com.rgbnet.provider.dto.UserDTO;
+import com.rgbnet.provider.service.UserDirectory;
+import com.rgbnet.provider.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Login que regrava o hash da senha seguido de GET e PATCH com If-Match, com o diretório em memória pronto
+// respondendo a versão usada na ETag
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "directory.enabled=true",
+        "directory.topic=" + PasswordRehashETagTest.TOPIC,
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "security.password.bcrypt-strength=4"
+})
+@ActiveProfiles("h2")
+@EmbeddedKafka(partitions = 1, topics = PasswordRehashETagTest.TOPIC)
+class PasswordRehashETagTest {
+
+    static final String TOPIC = "user-events";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserDirectory userDirectory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Test
+    @DisplayName("Deve aceitar o If-Match com a ETag lida depois de um login que regravou o hash da senha")
+    void patchWithETagAfterRehash() throws Exception {
+        // Arrange: hash legado sem prefixo {bcrypt}, regravado no próximo login
+        String username = "rehash" + UUID.randomUUID().toString().substring(0, 8);
+        UUID id = userService.create(UserDTO.builder()
+                .username(username)
+                .password("password123")
+                .fullName("Rehash User")
+                .email(username + "@example.com")
+                .roles(Set.of("ADMIN"))
+                .build()).getId();
+        jdbcTemplate.update("UPDATE users SET password = ? WHERE id = ?",
+                new BCryptPasswordEncoder(4).encode("password123"), id);
+        entityManagerFactory.getCache().evictAll();
+        awaitDirectory();
+
+        // Act
+        HttpResponse<String> login = send(HttpRequest.newBuilder(uri("/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"username\":\"" + username + "\",\"password\":\"password123\"}")));
+        String token = objectMapper.readValue(login.body(), AuthResponse.class).getToken();
+        HttpResponse<String> read = send(HttpRequest.newBuilder(uri("/users/" + id))
+                .header("Authorization", "Bearer " + token)
+                .GET());
+        String etag = read.headers().firstValue("ETag").orElseThrow();
+        HttpResponse<String> patch = send(HttpRequest.newBuilder(uri("/users/" + id))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .header("If-Match", etag)
+                .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"fullName\":\"Patched\"}")));
+
+        // Assert
+        assertEquals(200, login.statusCode());
+        assertTrue(jdbcTemplate.queryForObject("SELECT password FROM users WHERE id = ?", String.class, id)
+                .startsWith("{bcrypt}"));
+        assertEquals(200, read.statusCode());
+        assertEquals(200, patch.statusCode(), patch.body());
+    }
+
+    private void awaitDirectory() throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+        while (!userDirectory.isReady() && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertTrue(userDirectory.isReady());
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,46 @@
+package com.rgbnet.provider.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.web.SecurityFilterChain;
+
+// Segurança mínima para os testes @WebMvcTest dos controllers, importada com @Import. Como @TestConfiguration
+// de nível superior ela não conta como configuração principal, e o @WebMvcTest continua partindo da
+// ProviderApplication (o que registra o controller sob teste); uma @Configuration aninhada na classe de teste
+// tomaria o lugar dela e os endpoints responderiam 404.
+@TestConfiguration
+@EnableWebSecurity
+public class SecurityTestConfig {
+
+    @Bean
+    public SecurityFilterChain testSecurityFilterChain(HttpSecurity http) throws Exception {
+        return http
+                .csrf(AbstractHttpConfigurer::disable)
+                .authorizeHttpRequests(auth -> auth.anyRequest().permitAll())
+                .build();
+    }
+
+    // Primário porque o UserService, mockado nos testes que o usam, também é um UserDetailsService
+    @Bean
+    @Primary
+    public UserDetailsService testUserDetailsService() {
+        return username -> User.withUsername(username)
+                .password("password")
+                .authorities("ROLE_USER")
+                .build();
+    }
+
+    // Filtros e controllers registram as métricas no construtor, e o @WebMvcTest não sobe o Micrometer
+    @Bean
+    public MeterRegistry testMeterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+}
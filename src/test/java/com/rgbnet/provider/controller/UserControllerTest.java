@@ -0,0 +1,168 @@
+package com.rgbnet.provider.controller;
+
+import com.rgbnet.provider.dto.UserDTO;
+import com.rgbnet.provider.exception.PreconditionFailedException;
+import com.rgbnet.provider.security.JwtTokenProvider;
+import com.rgbnet.provider.security.RevokedAccessTokens;
+import com.rgbnet.provider.service.UserExportService;
+import com.rgbnet.provider.service.UserImportService;
+import com.rgbnet.provider.service.UserSearchService;
+import com.rgbnet.provider.service.UserService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(UserController.class)
+@Import(SecurityTestConfig.class)
+class UserControllerTest {
+
+    private static final UUID USER_ID = UUID.randomUUID();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    // O @EnableJpaAuditing da ProviderApplication precisa de um contexto de mapeamento JPA, que o @WebMvcTest não sobe
+    @MockBean
+    private JpaMetamodelMappingContext jpaMetamodelMappingContext;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private UserExportService userExportService;
+
+    @MockBean
+    private UserImportService userImportService;
+
+    @MockBean
+    private UserSearchService userSearchService;
+
+    @MockBean
+    private JwtTokenProvider jwtTokenProvider;
+
+    @MockBean
+    private RevokedAccessTokens revokedAccessTokens;
+
+    @Test
+    @DisplayName("Deve retornar o usuário com ETag forte derivada da versão")
+    void findByIdReturnsETag() throws Exception {
+        // Arrange
+        when(userService.findById(USER_ID)).thenReturn(user(3L));
+
+        // Act & Assert
+        mockMvc.perform(get("/users/{id}", USER_ID))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(jsonPath("$.version").value(3));
+    }
+
+    @Test
+    @DisplayName("Deve responder 304 ao If-None-Match da versão atual sem carregar o usuário")
+    void findByIdNotModified() throws Exception {
+        // Arrange
+        when(userService.findVersion(USER_ID)).thenReturn(3L);
+
+        // Act & Assert
+        mockMvc.perform(get("/users/{id}", USER_ID).header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+        verify(userService, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Deve aplicar o PATCH com a versão do If-Match e devolver a nova ETag")
+    void patchWithIfMatch() throws Exception {
+        // Arrange
+        when(userService.patch(eq(USER_ID), any(UserDTO.class), eq(3L))).thenReturn(user(4L));
+
+        // Act & Assert
+        mockMvc.perform(patch("/users/{id}", USER_ID)
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fullName\":\"Novo Nome\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
+    @Test
+    @DisplayName("Deve responder 412 quando o If-Match não corresponde à versão atual")
+    void patchWithStaleIfMatch() throws Exception {
+        // Arrange
+        when(userService.patch(eq(USER_ID), any(UserDTO.class), eq(2L)))
+                .thenThrow(new PreconditionFailedException("Versão desatualizada"));
+
+        // Act & Assert
+        mockMvc.perform(patch("/users/{id}", USER_ID)
+                        .header(HttpHeaders.IF_MATCH, "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fullName\":\"Novo Nome\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(patch("/users/{id}", USER_ID)
+                        .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fullName\":\"Novo Nome\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    @DisplayName("Deve validar só os campos presentes no PATCH")
+    void patchValidatesPresentFields() throws Exception {
+        // Act & Assert
+        mockMvc.perform(patch("/users/{id}", USER_ID)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fullName\":\" \",\"email\":\"invalido\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Erro de validação"));
+        verify(userService, never()).patch(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve responder 409 quando o e-mail do PATCH já pertence a outro usuário")
+    void patchWithDuplicateEmail() throws Exception {
+        // Arrange
+        when(userService.patch(eq(USER_ID), any(UserDTO.class), any())).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement", new SQLException("duplicate key value", "23505")));
+
+        // Act & Assert
+        mockMvc.perform(patch("/users/{id}", USER_ID)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"other@example.com\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Nome de usuário ou e-mail já cadastrado"));
+    }
+
+    private static UserDTO user(long version) {
+        return UserDTO.builder()
+                .id(USER_ID)
+                .username("testuser")
+                .fullName("Test User")
+                .email("test@example.com")
+                .roles(Set.of("USER"))
+                .active(true)
+                .version(version)
+                .build();
+    }
+}
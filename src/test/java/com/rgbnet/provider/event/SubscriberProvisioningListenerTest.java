@@ -0,0 +1,120 @@
+package com.rgbnet.provider.event;
+
+import com.rgbnet.provider.domain.User;
+import com.rgbnet.provider.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "provisioning.enabled=true",
+        "provisioning.consumer.concurrency=3",
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.group-id=provisioning-test",
+        "spring.kafka.consumer.auto-offset-reset=earliest",
+        "security.password.bcrypt-strength=4"
+})
+@EmbeddedKafka(partitions = 3, topics = SubscriberProvisioningListenerTest.TOPIC)
+@Testcontainers
+class SubscriberProvisioningListenerTest {
+
+    static final String TOPIC = "subscriber-activations";
+
+    private static final int SUBSCRIBERS = 2_000;
+
+    @Container
+    static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void postgresqlProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+    }
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM user_outbox");
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Deve provisionar as ativações em lote, mantendo a última mensagem de cada assinante")
+    void provisionsSubscribersInBatches() throws Exception {
+        // Arrange
+        long start = System.nanoTime();
+        for (int i = 0; i < SUBSCRIBERS; i++) {
+            kafkaTemplate.send(TOPIC, "sub" + i, activation("sub" + i, "Subscriber " + i));
+        }
+        // Reenvios do billing: só a última versão deve prevalecer
+        for (int i = 0; i < SUBSCRIBERS; i += 10) {
+            kafkaTemplate.send(TOPIC, "sub" + i, activation("sub" + i, "Subscriber " + i + " v2"));
+        }
+        kafkaTemplate.send(TOPIC, "broken", "{not json");
+        kafkaTemplate.flush();
+
+        // Act
+        long deadline = System.nanoTime() + Duration.ofSeconds(60).toNanos();
+        while (!lastVersionApplied() && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("Provisionamento: %d ativações em %.0f ms (%.1f ativações/s)%n",
+                SUBSCRIBERS, elapsed / 1e6, SUBSCRIBERS / (elapsed / 1e9));
+
+        // Assert
+        assertEquals(SUBSCRIBERS, userRepository.count());
+        User updated = userRepository.findByUsername("sub10").orElseThrow();
+        assertEquals("Subscriber 10 v2", updated.getFullName());
+        assertTrue(updated.getRoles().contains("USER"));
+        assertEquals("Subscriber 11", userRepository.findByUsername("sub11").orElseThrow().getFullName());
+        Integer created = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM user_outbox WHERE event_type = 'CREATED'", Integer.class);
+        assertEquals(SUBSCRIBERS, created);
+    }
+
+    private boolean lastVersionApplied() {
+        Integer users = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Integer.class);
+        Integer updated = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE full_name LIKE '% v2'", Integer.class);
+        return users == SUBSCRIBERS && updated == SUBSCRIBERS / 10;
+    }
+
+    private static String activation(String username, String fullName) {
+        return """
+                {"username":"%s","password":"password123","fullName":"%s","email":"%s@example.com"}
+                """.formatted(username, fullName, username);
+    }
+}
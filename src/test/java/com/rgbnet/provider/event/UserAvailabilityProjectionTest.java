@@ -0,0 +1,98 @@
+package com.rgbnet.provider.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rgbnet.provider.service.UserAvailabilityService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "availability.feed.enabled=true",
+        "availability.feed.topic=" + UserAvailabilityProjectionTest.TOPIC,
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}"
+})
+@ActiveProfiles("h2")
+@EmbeddedKafka(partitions = 3, topics = UserAvailabilityProjectionTest.TOPIC)
+class UserAvailabilityProjectionTest {
+
+    static final String TOPIC = "user-events";
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private UserAvailabilityService userAvailabilityService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Deve levar aos filtros os cadastros feitos em outro nó, recebidos pelo tópico")
+    void followsRegistrationsFromOtherNodes() throws Exception {
+        // Arrange: a linha só existe no banco do outro nó, então aqui o banco confirma disponível e o que muda é a
+        // resposta do filtro, de negativa para possível positivo
+        String username = "remote" + UUID.randomUUID().toString().substring(0, 8);
+        UserChangedEvent event = event(username);
+
+        // Act: reenvia até a projeção, que começa no fim do tópico, estar posicionada e receber o evento
+        boolean filtered = await(() -> {
+            send(event);
+            double falsePositives = falsePositives();
+            userAvailabilityService.isUsernameAvailable(username.toUpperCase());
+            return falsePositives() > falsePositives;
+        });
+
+        // Assert
+        assertTrue(filtered);
+    }
+
+    private double falsePositives() {
+        return meterRegistry.get("availability.checks")
+                .tag("kind", "username")
+                .tag("result", "false-positive")
+                .counter()
+                .count();
+    }
+
+    private void send(UserChangedEvent event) {
+        try {
+            kafkaTemplate.send(TOPIC, event.userId().toString(), objectMapper.writeValueAsString(event)).get();
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static boolean await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+        boolean result = condition.getAsBoolean();
+        while (!result && System.nanoTime() < deadline) {
+            Thread.sleep(200);
+            result = condition.getAsBoolean();
+        }
+        return result;
+    }
+
+    private static UserChangedEvent event(String username) {
+        LocalDateTime now = LocalDateTime.now();
+        return new UserChangedEvent(UUID.randomUUID(), UserChangedEvent.Type.CREATED, UUID.randomUUID(), 0L,
+                Instant.now(), username, "Remote User", username + "@example.com", null, Set.of("USER"), true, now,
+                now);
+    }
+}
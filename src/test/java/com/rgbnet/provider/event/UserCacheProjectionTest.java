@@ -0,0 +1,118 @@
+package com.rgbnet.provider.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rgbnet.provider.domain.User;
+import com.rgbnet.provider.dto.UserDTO;
+import com.rgbnet.provider.repository.UserRepository;
+import com.rgbnet.provider.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "second-level-cache.invalidation.enabled=true",
+        "second-level-cache.invalidation.topic=" + UserCacheProjectionTest.TOPIC,
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "security.password.bcrypt-strength=4"
+})
+@ActiveProfiles("h2")
+@EmbeddedKafka(partitions = 3, topics = UserCacheProjectionTest.TOPIC)
+class UserCacheProjectionTest {
+
+    static final String TOPIC = "user-events";
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("Deve remover do cache deste nó o usuário alterado em outro nó, recebido pelo tópico")
+    void evictsUsersChangedOnOtherNodes() throws Exception {
+        // Arrange
+        String username = "cached" + UUID.randomUUID().toString().substring(0, 8);
+        UUID id = userService.create(UserDTO.builder()
+                .username(username)
+                .password("password123")
+                .fullName("Cached User")
+                .email(username + "@example.com")
+                .roles(Set.of("USER"))
+                .build()).getId();
+        UserChangedEvent event = event(id, username);
+
+        // Act: recarrega e reenvia até a projeção, que começa no fim do tópico, estar posicionada
+        boolean evicted = await(() -> {
+            transactionTemplate.executeWithoutResult(status -> userRepository.findById(id).orElseThrow());
+            assertTrue(entityManagerFactory.getCache().contains(User.class, id));
+            send(event);
+            return awaitEviction(id);
+        });
+
+        // Assert
+        assertTrue(evicted);
+    }
+
+    private boolean awaitEviction(UUID id) {
+        try {
+            return await(() -> !entityManagerFactory.getCache().contains(User.class, id), Duration.ofSeconds(2));
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private void send(UserChangedEvent event) {
+        try {
+            kafkaTemplate.send(TOPIC, event.userId().toString(), objectMapper.writeValueAsString(event)).get();
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static boolean await(BooleanSupplier condition) throws InterruptedException {
+        return await(condition, Duration.ofSeconds(20));
+    }
+
+    private static boolean await(BooleanSupplier condition, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        boolean result = condition.getAsBoolean();
+        while (!result && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            result = condition.getAsBoolean();
+        }
+        return result;
+    }
+
+    private static UserChangedEvent event(UUID userId, String username) {
+        LocalDateTime now = LocalDateTime.now();
+        return new UserChangedEvent(UUID.randomUUID(), UserChangedEvent.Type.UPDATED, userId, 1L, Instant.now(),
+                username, "Renamed Elsewhere", username + "@example.com", null, Set.of("USER"), true, now, now);
+    }
+}
@@ -0,0 +1,104 @@
+package com.rgbnet.provider.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rgbnet.provider.dto.UserDTO;
+import com.rgbnet.provider.service.UserDirectory;
+import com.rgbnet.provider.service.UserService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "directory.enabled=true",
+        "directory.topic=" + UserDirectoryProjectionTest.TOPIC,
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}"
+})
+@ActiveProfiles("h2")
+@EmbeddedKafka(partitions = 3, topics = UserDirectoryProjectionTest.TOPIC)
+class UserDirectoryProjectionTest {
+
+    static final String TOPIC = "user-events";
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private UserDirectory userDirectory;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("Deve acompanhar o tópico de eventos e atender consultas pelo diretório")
+    void followsTopic() throws Exception {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+        send(event(userId, 0L, "remote", "remote@example.com"));
+        send(event(userId, 1L, "remote.renamed", "remote@example.com"));
+
+        // Act
+        Optional<UserDTO> user = await(() -> userDirectory.findByUsername("remote.renamed"));
+
+        // Assert
+        assertTrue(user.isPresent());
+        assertEquals(userId, user.get().getId());
+        assertEquals(userId, userService.findById(userId).getId());
+        assertTrue(userDirectory.findByUsername("remote").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve enxergar as próprias escritas logo após o commit, sem passar pelo Kafka")
+    void readsOwnWrites() throws Exception {
+        // Arrange
+        await(() -> userDirectory.isReady() ? Optional.of(true) : Optional.empty());
+
+        // Act
+        UserDTO created = userService.create(UserDTO.builder()
+                .username("localwriter")
+                .password("password123")
+                .fullName("Local Writer")
+                .email("local@example.com")
+                .roles(Set.of("USER"))
+                .build());
+
+        // Assert
+        assertEquals("localwriter", userDirectory.findById(created.getId()).orElseThrow().getUsername());
+    }
+
+    private void send(UserChangedEvent event) throws Exception {
+        kafkaTemplate.send(TOPIC, event.userId().toString(), objectMapper.writeValueAsString(event)).get();
+    }
+
+    private static <T> Optional<T> await(Supplier<Optional<T>> lookup) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+        Optional<T> result = lookup.get();
+        while (result.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            result = lookup.get();
+        }
+        return result;
+    }
+
+    private static UserChangedEvent event(UUID userId, long version, String username, String email) {
+        LocalDateTime now = LocalDateTime.now();
+        return new UserChangedEvent(UUID.randomUUID(), UserChangedEvent.Type.UPDATED, userId, version, Instant.now(),
+                username, "Remote User", email, null, Set.of("USER"), true, now, now);
+    }
+}
@@ -0,0 +1,160 @@
+package com.rgbnet.provider.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rgbnet.provider.dto.UserDTO;
+import com.rgbnet.provider.repository.UserRepository;
+import com.rgbnet.provider.service.UserService;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "outbox.relay.enabled=true",
+        "outbox.relay.poll-interval-ms=50",
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}"
+})
+@EmbeddedKafka(partitions = 1, topics = UserOutboxRelayTest.TOPIC)
+@Testcontainers
+class UserOutboxRelayTest {
+
+    static final String TOPIC = "user-events";
+
+    @Container
+    static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void postgresqlProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+    }
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafkaBroker;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserOutboxRelay userOutboxRelay;
+
+    private Consumer<String, String> consumer;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        consumer = new DefaultKafkaConsumerFactory<>(
+                KafkaTestUtils.consumerProps("outbox-test-" + UUID.randomUUID(), "false", embeddedKafkaBroker),
+                new StringDeserializer(), new StringDeserializer()).createConsumer();
+        embeddedKafkaBroker.consumeFromAnEmbeddedTopic(consumer, TOPIC);
+    }
+
+    @AfterEach
+    void tearDown() {
+        consumer.close();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Deve publicar criação, alteração e exclusão em ordem, com o id do usuário como chave")
+    void publishesUserChangesInOrder() throws Exception {
+        // Arrange
+        UserDTO created = userService.create(UserDTO.builder()
+                .username("outboxuser")
+                .password("password123")
+                .fullName("Outbox User")
+                .email("outbox@example.com")
+                .roles(Set.of("USER"))
+                .build());
+
+        // Act
+        created.setFullName("Outbox User Updated");
+        userService.update(created.getId(), created);
+        userService.delete(created.getId());
+
+        // Assert
+        List<UserChangedEvent> events = new ArrayList<>();
+        long deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+        while (events.size() < 3 && System.nanoTime() < deadline) {
+            for (ConsumerRecord<String, String> consumerRecord
+                    : KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(1))) {
+                assertEquals(created.getId().toString(), consumerRecord.key());
+                events.add(objectMapper.readValue(consumerRecord.value(), UserChangedEvent.class));
+            }
+        }
+
+        assertEquals(List.of(UserChangedEvent.Type.CREATED, UserChangedEvent.Type.UPDATED,
+                UserChangedEvent.Type.DELETED), events.stream().map(UserChangedEvent::type).toList());
+        assertEquals("Outbox User Updated", events.get(1).fullName());
+        assertFalse(events.get(2).active());
+        assertTrue(events.get(0).version() < events.get(1).version());
+        assertTrue(events.get(1).version() < events.get(2).version());
+
+        // As linhas saem da outbox no commit do lote, logo após a confirmação do broker
+        int pending = pendingEvents();
+        while (pending > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            pending = pendingEvents();
+        }
+        assertEquals(0, pending);
+    }
+
+    @Test
+    @DisplayName("Não deve avançar sobre a outbox enquanto o início está reservado por outra instância")
+    void skipsWhileHeadIsClaimed() {
+        // Arrange: evento reservado por outro relay, que ainda não confirmou o envio
+        jdbcTemplate.update("INSERT INTO user_outbox (aggregate_id, event_type, payload, created_at, claimed_until) "
+                        + "VALUES (?, 'CREATED', '{}', ?, ?)", UUID.randomUUID(),
+                Timestamp.valueOf(LocalDateTime.now()), Timestamp.valueOf(LocalDateTime.now().plusHours(1)));
+
+        // Act
+        int sent = userOutboxRelay.relayBatch();
+
+        // Assert
+        assertEquals(0, sent);
+        assertEquals(1, pendingEvents());
+        jdbcTemplate.update("DELETE FROM user_outbox");
+    }
+
+    private int pendingEvents() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_outbox", Integer.class);
+    }
+}
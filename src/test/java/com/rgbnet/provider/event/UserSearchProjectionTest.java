@@ -0,0 +1,106 @@
+package com.rgbnet.provider.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rgbnet.provider.exception.ServiceUnavailableException;
+import com.rgbnet.provider.service.UserSearchService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "search.feed.enabled=true",
+        "search.feed.topic=" + UserSearchProjectionTest.TOPIC,
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}"
+})
+@ActiveProfiles("h2")
+@EmbeddedKafka(partitions = 3, topics = UserSearchProjectionTest.TOPIC)
+class UserSearchProjectionTest {
+
+    static final String TOPIC = "user-events";
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private UserSearchService userSearchService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("Deve indexar, sem esperar a recarga, o usuário alterado em outro nó e recebido pelo tópico")
+    void indexesUsersChangedOnOtherNodes() throws Exception {
+        // Arrange: usuário que só existe no evento, como um cadastro ainda não visto pela recarga deste nó
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        UserChangedEvent event = event(UUID.randomUUID(), "remoto" + suffix);
+
+        // Act: reenvia até a projeção, que começa no fim do tópico, estar posicionada
+        boolean indexed = await(() -> {
+            send(event);
+            return awaitHit("remoto" + suffix);
+        });
+
+        // Assert
+        assertTrue(indexed);
+        assertEquals(event.userId(), userSearchService.search("remoto" + suffix, null, 10, null)
+                .getItems().get(0).getId());
+    }
+
+    private boolean awaitHit(String query) {
+        try {
+            return await(() -> hits(query) > 0, Duration.ofSeconds(2));
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    // Até a primeira carga do índice a busca responde 503
+    private int hits(String query) {
+        try {
+            return userSearchService.search(query, null, 10, null).getItems().size();
+        } catch (ServiceUnavailableException e) {
+            return 0;
+        }
+    }
+
+    private void send(UserChangedEvent event) {
+        try {
+            kafkaTemplate.send(TOPIC, event.userId().toString(), objectMapper.writeValueAsString(event)).get();
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static boolean await(BooleanSupplier condition) throws InterruptedException {
+        return await(condition, Duration.ofSeconds(20));
+    }
+
+    private static boolean await(BooleanSupplier condition, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        boolean result = condition.getAsBoolean();
+        while (!result && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            result = condition.getAsBoolean();
+        }
+        return result;
+    }
+
+    private static UserChangedEvent event(UUID userId, String username) {
+        LocalDateTime now = LocalDateTime.now();
+        return new UserChangedEvent(UUID.randomUUID(), UserChangedEvent.Type.CREATED, userId, 1L, Instant.now(),
+                username, "Remote User", username + "@example.com", null, Set.of("USER"), true, now, now);
+    }
+}
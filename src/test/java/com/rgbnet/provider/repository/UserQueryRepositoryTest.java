@@ -0,0 +1,148 @@
+package com.rgbnet.provider.repository;
+
+import com.rgbnet.provider.domain.User;
+import com.rgbnet.provider.dto.UserDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(UserQueryRepository.class)
+public class UserQueryRepositoryTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void postgresqlProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+    }
+
+    @Autowired
+    private UserQueryRepository userQueryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void pageStatementCountDoesNotDependOnPageSize() {
+        // Arrange
+        createUsers(0, 5);
+
+        // Act
+        long smallPageStatements = countStatements(() -> userQueryRepository.findFirstPage(null, 5));
+        createUsers(5, 50);
+        long largePageStatements = countStatements(() -> userQueryRepository.findFirstPage(null, 50));
+
+        // Assert
+        assertEquals(2, smallPageStatements, "Uma consulta para os usuários e uma para os papéis");
+        assertEquals(smallPageStatements, largePageStatements);
+    }
+
+    @Test
+    void findPagesByKeysetWithRoles() {
+        // Arrange
+        createUsers(0, 3);
+
+        // Act
+        List<UserDTO> firstPage = userQueryRepository.findFirstPage(null, 2);
+        UserDTO last = firstPage.get(firstPage.size() - 1);
+        List<UserDTO> secondPage = userQueryRepository.findPageAfter(last.getCreatedAt(), last.getId(), null, 2);
+
+        // Assert
+        assertEquals(2, firstPage.size());
+        assertEquals(1, secondPage.size());
+        Set<String> usernames = Stream.concat(firstPage.stream(), secondPage.stream())
+                .map(UserDTO::getUsername)
+                .collect(Collectors.toSet());
+        assertEquals(Set.of("user0", "user1", "user2"), usernames);
+        assertEquals(Set.of("USER", "SUPPORT"), firstPage.get(0).getRoles());
+    }
+
+    @Test
+    void findByUsernameAndEmailWithRoles() {
+        // Arrange
+        createUsers(0, 2);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        UserDTO byUsername = userQueryRepository.findByUsername("user1").orElseThrow();
+        UserDTO byEmail = userQueryRepository.findByEmail("user1@example.com").orElseThrow();
+
+        // Assert
+        assertEquals(byUsername.getId(), byEmail.getId());
+        assertEquals(Set.of("USER", "SUPPORT"), byUsername.getRoles());
+        assertTrue(userQueryRepository.findByUsername("missing").isEmpty());
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount(),
+                "A projeção não carrega a entidade no contexto de persistência");
+    }
+
+    @Test
+    void findByIdReturnsEmptyForUnknownUser() {
+        // Act & Assert
+        assertTrue(userQueryRepository.findById(UUID.randomUUID()).isEmpty());
+    }
+
+    private long countStatements(Runnable query) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        query.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void createUsers(int from, int to) {
+        for (int i = from; i < to; i++) {
+            userRepository.save(User.builder()
+                    .username("user" + i)
+                    .password("password")
+                    .fullName("User " + i)
+                    .email("user" + i + "@example.com")
+                    .roles(new HashSet<>(Set.of("USER", "SUPPORT")))
+                    .build());
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.rgbnet.provider.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtKeyRingTest {
+
+    @TempDir
+    Path keysDirectory;
+
+    @Test
+    @DisplayName("Deve publicar uma chave nova no JWKS antes de passar a assinar com ela")
+    void rotatesAfterActivationDelay() throws Exception {
+        // Arrange
+        writeKey("2026-01-01", Instant.now().minus(Duration.ofDays(30)), true);
+        JwtKeyRing keyRing = new JwtKeyRing(new SimpleMeterRegistry(), keysDirectory.toString(), Duration.ofMinutes(10),
+                false);
+        Path newKey = writeKey("2026-02-01", Instant.now(), true);
+
+        // Act
+        keyRing.reload();
+
+        // Assert
+        assertEquals("2026-01-01", keyRing.signingKey().kid());
+        assertNotNull(keyRing.verificationKey("2026-02-01"));
+        assertTrue(keyRing.jwks().json().contains("\"kid\":\"2026-02-01\""));
+
+        // Act
+        Files.setLastModifiedTime(newKey, FileTime.from(Instant.now().minus(Duration.ofMinutes(11))));
+        keyRing.reload();
+
+        // Assert
+        assertEquals("2026-02-01", keyRing.signingKey().kid());
+    }
+
+    @Test
+    @DisplayName("Deve deixar de verificar uma chave retirada do diretório e manter as chaves só públicas no JWKS")
+    void retiresRemovedKeys() throws Exception {
+        // Arrange
+        Path retired = writeKey("2026-01-01", Instant.now().minus(Duration.ofDays(30)), true);
+        writeKey("2026-02-01", Instant.now().minus(Duration.ofDays(1)), true);
+        writeKey("peer", Instant.now().minus(Duration.ofDays(1)), false);
+        JwtKeyRing keyRing = new JwtKeyRing(new SimpleMeterRegistry(), keysDirectory.toString(), Duration.ZERO, false);
+        String etag = keyRing.jwks().etag();
+
+        // Act
+        Files.delete(retired);
+        keyRing.reload();
+
+        // Assert
+        assertNull(keyRing.verificationKey("2026-01-01"));
+        assertNotNull(keyRing.verificationKey("peer"));
+        assertEquals("2026-02-01", keyRing.signingKey().kid());
+        assertNotEquals(etag, keyRing.jwks().etag());
+        assertTrue(keyRing.jwks().json().contains("\"crv\":\"P-256\""));
+    }
+
+    @Test
+    @DisplayName("Deve manter as chaves em uso quando um arquivo novo é inválido")
+    void keepsPreviousKeysOnInvalidFile() throws Exception {
+        // Arrange
+        writeKey("2026-01-01", Instant.now().minus(Duration.ofDays(30)), true);
+        JwtKeyRing keyRing = new JwtKeyRing(new SimpleMeterRegistry(), keysDirectory.toString(), Duration.ZERO, false);
+        Files.writeString(keysDirectory.resolve("broken.pem"),
+                "-----BEGIN PUBLIC KEY-----\nAAAA\n-----END PUBLIC KEY-----\n");
+
+        // Act
+        keyRing.reload();
+
+        // Assert
+        assertEquals("2026-01-01", keyRing.signingKey().kid());
+        assertNull(keyRing.verificationKey("broken"));
+    }
+
+    @Test
+    @DisplayName("Não deve subir sem diretório de chaves quando a chave efêmera não é permitida")
+    void rejectsMissingDirectoryWithoutEphemeralKeys() {
+        // Act & Assert
+        assertThrows(IllegalStateException.class,
+                () -> new JwtKeyRing(new SimpleMeterRegistry(), "", Duration.ZERO, false));
+        assertNotNull(new JwtKeyRing(new SimpleMeterRegistry(), "", Duration.ZERO, true).signingKey());
+    }
+
+    private Path writeKey(String kid, Instant publishedAt, boolean withPrivateKey) throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair keyPair = generator.generateKeyPair();
+
+        String pem = (withPrivateKey ? pem("PRIVATE KEY", keyPair.getPrivate().getEncoded()) : "")
+                + pem("PUBLIC KEY", keyPair.getPublic().getEncoded());
+        Path file = keysDirectory.resolve(kid + ".pem");
+        Files.writeString(file, pem);
+        Files.setLastModifiedTime(file, FileTime.from(publishedAt));
+        return file;
+    }
+
+    private static String pem(String type, byte[] der) {
+        return "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes()).encodeToString(der)
+                + "\n-----END " + type + "-----\n";
+    }
+}
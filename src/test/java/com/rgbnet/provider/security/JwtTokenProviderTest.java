@@ -0,0 +1,178 @@
+package com.rgbnet.provider.security;
+
+import com.rgbnet.provider.domain.UserSnapshot;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "testSecretKeyForJWTInTestEnvironmentNeedsToBeVeryLongToSatisfyRequirements";
+    private static final JwtKeyRing KEY_RING = new JwtKeyRing(new SimpleMeterRegistry(), "", Duration.ZERO, true);
+
+    private JwtTokenProvider jwtTokenProvider;
+    private SimpleMeterRegistry meterRegistry;
+    private UserDetails userDetails;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenProvider = new JwtTokenProvider(KEY_RING, SECRET, true, 60_000, 100, false, Duration.ofMinutes(5));
+        meterRegistry = new SimpleMeterRegistry();
+        jwtTokenProvider.bindTo(meterRegistry);
+        userDetails = new User("testuser", "password", new ArrayList<>());
+    }
+
+    @Test
+    @DisplayName("Deve verificar o token uma vez e servir as chamadas seguintes do cache")
+    void verifyUsesCacheForRepeatedTokens() {
+        // Arrange
+        String token = jwtTokenProvider.generateToken(userDetails);
+
+        // Act
+        Claims first = jwtTokenProvider.verify(token);
+        Claims second = jwtTokenProvider.verify(token);
+
+        // Assert
+        assertEquals("testuser", first.getSubject());
+        assertSame(first, second);
+        assertEquals(1.0, cacheGets("hit"));
+        assertEquals(1.0, cacheGets("miss"));
+        assertTrue(jwtTokenProvider.isTokenValid(second, userDetails));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar token com assinatura adulterada")
+    void verifyRejectsTamperedToken() {
+        // Arrange
+        String token = jwtTokenProvider.generateToken(userDetails);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        // Act & Assert
+        assertThrows(JwtException.class, () -> jwtTokenProvider.verify(tampered));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar token expirado mesmo que já tenha sido emitido por este provider")
+    void verifyRejectsExpiredToken() {
+        // Arrange
+        JwtTokenProvider expiredProvider = new JwtTokenProvider(KEY_RING, SECRET, true, -1_000, 100, false,
+                Duration.ofMinutes(5));
+        String token = expiredProvider.generateToken(userDetails);
+
+        // Act & Assert
+        assertThrows(ExpiredJwtException.class, () -> expiredProvider.verify(token));
+        assertThrows(ExpiredJwtException.class, () -> expiredProvider.verify(token));
+    }
+
+    @Test
+    @DisplayName("Deve montar o principal a partir das claims quando a autorização sem banco está ativa")
+    void resolvePrincipalFromClaims() {
+        // Arrange
+        JwtTokenProvider statelessProvider = new JwtTokenProvider(KEY_RING, SECRET, true, 60_000, 100, true,
+                Duration.ofMinutes(5));
+        com.rgbnet.provider.domain.User user = com.rgbnet.provider.domain.User.builder()
+                .username("operator")
+                .password("encoded_password")
+                .roles(Set.of("ADMIN"))
+                .build();
+        String token = statelessProvider.generateToken(UserSnapshot.from(user));
+
+        // Act
+        Optional<UserDetails> principal = statelessProvider.resolvePrincipal(statelessProvider.verify(token));
+
+        // Assert
+        assertTrue(principal.isPresent());
+        assertEquals("operator", principal.get().getUsername());
+        assertTrue(principal.get().isEnabled());
+        assertEquals("ROLE_ADMIN", principal.get().getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    @DisplayName("Deve recorrer ao repositório quando falta alguma claim de autorização")
+    void resolvePrincipalFallsBackWhenClaimIsMissing() {
+        // Arrange
+        JwtTokenProvider statelessProvider = new JwtTokenProvider(KEY_RING, SECRET, true, 60_000, 100, true,
+                Duration.ofMinutes(5));
+        String withoutClaims = statelessProvider.generateToken(Map.of(), userDetails);
+        String withClaims = statelessProvider.generateToken(userDetails);
+
+        // Act & Assert
+        assertTrue(statelessProvider.resolvePrincipal(statelessProvider.verify(withoutClaims)).isEmpty());
+        assertTrue(statelessProvider.resolvePrincipal(statelessProvider.verify(withClaims)).isPresent());
+        assertTrue(jwtTokenProvider.resolvePrincipal(jwtTokenProvider.verify(withClaims)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve assinar com ES256 e informar o kid da chave ativa no header")
+    void generateTokenSignsWithActiveKey() {
+        // Arrange
+        String token = jwtTokenProvider.generateToken(userDetails);
+
+        // Act
+        String header = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))),
+                StandardCharsets.UTF_8);
+
+        // Assert
+        assertTrue(header.contains("\"alg\":\"ES256\""));
+        assertTrue(header.contains("\"kid\":\"" + KEY_RING.signingKey().kid() + "\""));
+    }
+
+    @Test
+    @DisplayName("Deve aceitar tokens HS256 legados apenas enquanto jwt.legacy-hs256.enabled estiver ligado")
+    void verifyLegacyHs256Tokens() {
+        // Arrange
+        String legacyToken = Jwts.builder()
+                .setSubject("testuser")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)), SignatureAlgorithm.HS256)
+                .compact();
+        JwtTokenProvider strictProvider = new JwtTokenProvider(KEY_RING, SECRET, false, 60_000, 100, false,
+                Duration.ofMinutes(5));
+
+        // Act & Assert
+        assertEquals("testuser", jwtTokenProvider.verify(legacyToken).getSubject());
+        assertThrows(JwtException.class, () -> strictProvider.verify(legacyToken));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar token assinado por uma chave fora do key ring")
+    void verifyRejectsUnknownKey() {
+        // Arrange
+        JwtKeyRing otherKeyRing = new JwtKeyRing(new SimpleMeterRegistry(), "", Duration.ZERO, true);
+        JwtTokenProvider otherIssuer = new JwtTokenProvider(otherKeyRing, SECRET, true, 60_000, 100, false,
+                Duration.ofMinutes(5));
+        String token = otherIssuer.generateToken(userDetails);
+
+        // Act & Assert
+        assertThrows(JwtException.class, () -> jwtTokenProvider.verify(token));
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", "jwt.verified-tokens")
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+}
@@ -0,0 +1,135 @@
+package com.rgbnet.provider.security;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginRateLimitFilterTest {
+
+    private LoginRateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new LoginRateLimitFilter(JsonMapper.builder().findAndAddModules().build(), new SimpleMeterRegistry(),
+                true, 10, 10, 2, 2, 3, 3, 4, 1_000);
+    }
+
+    @Test
+    @DisplayName("Deve recusar com 429 e Retry-After quando o username passa do limite, sem chamar a cadeia")
+    void rejectsUsernameOverLimit() throws Exception {
+        // Arrange
+        for (int i = 0; i < 2; i++) {
+            assertEquals(200, login("10.0.0." + i, "Alice").getStatus());
+        }
+
+        // Act
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(loginRequest("10.0.0.9", "  alice "), response, chain);
+
+        // Assert
+        assertEquals(429, response.getStatus());
+        assertNotNull(response.getHeader("Retry-After"));
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    @DisplayName("Deve recusar por IP mesmo alternando usernames")
+    void rejectsIpOverLimit() throws Exception {
+        // Arrange
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, login("10.0.0.1", "user" + i).getStatus());
+        }
+
+        // Act
+        MockHttpServletResponse response = login("10.0.0.1", "another");
+
+        // Assert
+        assertEquals(429, response.getStatus());
+    }
+
+    @Test
+    @DisplayName("Deve repassar à cadeia o corpo já lido pelo filtro")
+    void forwardsCachedBody() throws Exception {
+        // Arrange
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(loginRequest("10.0.0.1", "bob"), new MockHttpServletResponse(), chain);
+
+        // Assert
+        String body = new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertEquals("{\"username\":\"bob\",\"password\":\"secret\"}", body);
+    }
+
+    @Test
+    @DisplayName("Deve limitar as consultas de disponibilidade por IP, sem gastar os tokens do login")
+    void rejectsAvailabilityOverLimit() throws Exception {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, availability("10.0.0.1").getStatus());
+        }
+
+        // Act
+        MockHttpServletResponse response = availability("10.0.0.1");
+
+        // Assert
+        assertEquals(429, response.getStatus());
+        assertNotNull(response.getHeader("Retry-After"));
+        assertEquals(200, availability("10.0.0.2").getStatus());
+        assertEquals(200, login("10.0.0.1", "bob").getStatus());
+    }
+
+    @Test
+    @DisplayName("Não deve limitar outros endpoints")
+    void ignoresOtherEndpoints() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = loginRequest("10.0.0.1", "bob");
+        request.setRequestURI("/api/auth/refresh");
+
+        // Act
+        MockFilterChain chain = new MockFilterChain();
+        for (int i = 0; i < 20; i++) {
+            chain = new MockFilterChain();
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+        }
+
+        // Assert
+        assertNotNull(chain.getRequest());
+    }
+
+    private MockHttpServletResponse login(String remoteAddr, String username) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(loginRequest(remoteAddr, username), response, new MockFilterChain());
+        return response;
+    }
+
+    private MockHttpServletResponse availability(String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/auth/availability");
+        request.setContextPath("/api");
+        request.setRemoteAddr(remoteAddr);
+        request.setParameter("username", "bob");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest loginRequest(String remoteAddr, String username) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setContextPath("/api");
+        request.setRemoteAddr(remoteAddr);
+        request.setContentType("application/json");
+        request.setContent(("{\"username\":\"" + username + "\",\"password\":\"secret\"}")
+                .getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
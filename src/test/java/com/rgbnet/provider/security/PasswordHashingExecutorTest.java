@@ -0,0 +1,118 @@
+package com.rgbnet.provider.security;
+
+import com.rgbnet.provider.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingExecutorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private PasswordHashingExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Deve executar a operação no pool dedicado e registrar o tempo de hash")
+    void executeRecordsHashTime() {
+        // Arrange
+        executor = new PasswordHashingExecutor(registry, 1, 1, Duration.ofSeconds(2), 0, 0);
+
+        // Act
+        String threadName = executor.execute(PasswordHashingExecutor.Operation.ENCODE,
+                () -> Thread.currentThread().getName());
+
+        // Assert
+        assertTrue(threadName.startsWith("password-hash-"));
+        assertEquals(1, registry.get("password.hash.duration").tag("operation", "encode").timer().count());
+    }
+
+    @Test
+    @DisplayName("Deve falhar rápido com 503 quando o pool e a fila estão cheios")
+    void executeRejectsWhenSaturated() throws Exception {
+        // Arrange
+        executor = new PasswordHashingExecutor(registry, 1, 1, Duration.ofSeconds(3), 0, 0);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() ->
+                executor.execute(PasswordHashingExecutor.Operation.MATCHES, () -> {
+                    started.countDown();
+                    await(release);
+                    return true;
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() ->
+                executor.execute(PasswordHashingExecutor.Operation.MATCHES, () -> true));
+        waitForQueuedTask();
+
+        // Act & Assert
+        ServiceUnavailableException exception = assertThrows(ServiceUnavailableException.class, () ->
+                executor.execute(PasswordHashingExecutor.Operation.MATCHES, () -> true));
+        assertEquals(3, exception.getRetryAfterSeconds());
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Deve recusar com 503 acima de max-in-flight mesmo com espaço na fila")
+    void executeRejectsAboveMaxInFlight() throws Exception {
+        // Arrange
+        executor = new PasswordHashingExecutor(registry, 1, 64, Duration.ofSeconds(2), 1, 8);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() ->
+                executor.execute(PasswordHashingExecutor.Operation.MATCHES, () -> {
+                    started.countDown();
+                    await(release);
+                    return true;
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act & Assert
+        assertThrows(ServiceUnavailableException.class, () ->
+                executor.execute(PasswordHashingExecutor.Operation.MATCHES, () -> true));
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(executor.execute(PasswordHashingExecutor.Operation.MATCHES, () -> true));
+    }
+
+    @Test
+    @DisplayName("Deve impedir a subida quando max-in-flight não fica abaixo das worker threads")
+    void rejectsMaxInFlightNotBelowWorkerThreads() {
+        // Arrange
+        executor = new PasswordHashingExecutor(registry, 1, 1, Duration.ofSeconds(2), 0, 4);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> new PasswordHashingExecutor(registry, 1, 64,
+                Duration.ofSeconds(2), 8, 8));
+    }
+
+    private void waitForQueuedTask() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get("password.hash.queue.depth").gauge().value() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.rgbnet.provider.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketLimiterTest {
+
+    @Test
+    @DisplayName("Deve admitir a rajada, recusar o excesso e repor tokens com o tempo")
+    void admitsBurstAndRefills() {
+        // Arrange
+        AtomicLong clock = new AtomicLong();
+        TokenBucketLimiter limiter = new TokenBucketLimiter(3, 60, 4, 100, clock::get);
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("user"));
+        }
+        long wait = limiter.tryAcquire("user");
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1_100));
+
+        // Assert
+        assertEquals(TimeUnit.SECONDS.toNanos(1), wait, TimeUnit.MILLISECONDS.toNanos(1));
+        assertEquals(0, limiter.tryAcquire("user"));
+        assertTrue(limiter.tryAcquire("user") > 0);
+        assertEquals(0, limiter.tryAcquire("other"));
+    }
+
+    @Test
+    @DisplayName("Deve descartar o bucket mais cheio entre as chaves menos usadas ao passar de max-keys")
+    void evictsFullestOfEldestKeys() {
+        // Arrange
+        AtomicLong clock = new AtomicLong();
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, 1, 1, 10, clock::get);
+        limiter.tryAcquire("drained");
+        limiter.tryAcquire("drained");
+        for (int i = 0; i < 9; i++) {
+            limiter.tryAcquire("key-" + i);
+        }
+
+        // Act
+        long admitted = limiter.tryAcquire("key-9");
+
+        // Assert
+        assertEquals(0, admitted);
+        assertEquals(10, limiter.size());
+        assertEquals(1, limiter.evictions());
+        assertTrue(limiter.tryAcquire("drained") > 0);
+    }
+
+    @Test
+    @DisplayName("Deve admitir uma chave nova mesmo depois de uma rajada de chaves maior que max-keys")
+    void keySprayStillAdmitsFreshKey() {
+        // Arrange
+        AtomicLong clock = new AtomicLong();
+        TokenBucketLimiter limiter = new TokenBucketLimiter(5, 5, 4, 100, clock::get);
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("spray-" + i);
+        }
+
+        // Act
+        long wait = limiter.tryAcquire("real-user");
+
+        // Assert
+        assertEquals(0, wait);
+        assertTrue(limiter.size() <= 100);
+    }
+
+    @Test
+    @DisplayName("Não deve zerar o bucket de uma chave drenada quando outras chaves enchem a faixa")
+    void keySprayDoesNotResetDrainedBucket() {
+        // Arrange
+        AtomicLong clock = new AtomicLong();
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, 1, 1, 10, clock::get);
+        limiter.tryAcquire("victim");
+        limiter.tryAcquire("victim");
+
+        // Act
+        for (int i = 0; i < 1_000; i++) {
+            limiter.tryAcquire("spray-" + i);
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+
+        // Assert
+        assertTrue(limiter.tryAcquire("victim") > 0);
+        assertTrue(limiter.size() <= 10);
+    }
+}
@@ -0,0 +1,110 @@
+package com.rgbnet.provider.service;
+
+import com.rgbnet.provider.dto.UserDTO;
+import com.rgbnet.provider.security.JwtTokenProvider;
+import com.rgbnet.provider.security.RevokedAccessTokens;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "security.password.bcrypt-strength=4")
+@ActiveProfiles("h2")
+class RefreshTokenServiceTest {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RevokedAccessTokens revokedAccessTokens;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UserDetails userDetails;
+
+    @BeforeEach
+    void setUp() {
+        String username = "refresh" + UUID.randomUUID().toString().substring(0, 8);
+        userService.create(UserDTO.builder()
+                .username(username)
+                .password("password123")
+                .fullName("Refresh User")
+                .email(username + "@example.com")
+                .roles(Set.of("USER"))
+                .build());
+        userDetails = userService.loadUserByUsername(username);
+    }
+
+    @Test
+    @DisplayName("Deve rotacionar o refresh token e recusar o anterior")
+    void rotatesRefreshToken() {
+        // Arrange
+        JwtTokenProvider.IssuedToken accessToken = jwtTokenProvider.issue(userDetails);
+        String refreshToken = refreshTokenService.issue(userDetails.getUsername(), accessToken);
+
+        // Act
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken,
+                username -> jwtTokenProvider.issue(userService.loadUserByUsername(username)));
+
+        // Assert
+        assertNotEquals(refreshToken, rotation.refreshToken());
+        assertEquals(userDetails.getUsername(), jwtTokenProvider.extractUsername(rotation.accessToken().token()));
+        assertFalse(revokedAccessTokens.isRevoked(rotation.accessToken().jti()));
+    }
+
+    @Test
+    @DisplayName("Deve revogar a família inteira quando um refresh token já rotacionado é reapresentado")
+    void revokesFamilyOnReuse() {
+        // Arrange
+        JwtTokenProvider.IssuedToken accessToken = jwtTokenProvider.issue(userDetails);
+        String refreshToken = refreshTokenService.issue(userDetails.getUsername(), accessToken);
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken,
+                username -> jwtTokenProvider.issue(userService.loadUserByUsername(username)));
+
+        // Act
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate(refreshToken,
+                username -> jwtTokenProvider.issue(userService.loadUserByUsername(username))));
+
+        // Assert
+        assertTrue(revokedAccessTokens.isRevoked(accessToken.jti()));
+        assertTrue(revokedAccessTokens.isRevoked(rotation.accessToken().jti()));
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate(rotation.refreshToken(),
+                username -> jwtTokenProvider.issue(userService.loadUserByUsername(username))));
+    }
+
+    @Test
+    @DisplayName("Deve revogar o access token no logout e propagar a revogação pelo refresh periódico")
+    void logoutRevokesAccessToken() {
+        // Arrange
+        JwtTokenProvider.IssuedToken accessToken = jwtTokenProvider.issue(userDetails);
+        String refreshToken = refreshTokenService.issue(userDetails.getUsername(), accessToken);
+
+        // Act
+        refreshTokenService.revoke(refreshToken);
+        revokedAccessTokens.refresh();
+
+        // Assert
+        assertTrue(revokedAccessTokens.isRevoked(accessToken.jti()));
+        Integer stored = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM revoked_access_tokens WHERE jti = ?", Integer.class,
+                UUID.fromString(accessToken.jti()));
+        assertEquals(1, stored);
+    }
+}
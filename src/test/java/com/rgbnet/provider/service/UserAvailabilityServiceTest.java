@@ -0,0 +1,75 @@
+package com.rgbnet.provider.service;
+
+import com.rgbnet.provider.dto.UserDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "security.password.bcrypt-strength=4")
+@ActiveProfiles("h2")
+class UserAvailabilityServiceTest {
+
+    @Autowired
+    private UserAvailabilityService userAvailabilityService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        userAvailabilityService.rebuild();
+    }
+
+    @Test
+    @DisplayName("Deve responder pelo filtro, sem banco, que um username nunca cadastrado está disponível")
+    void negativeAnsweredByFilter() {
+        // Arrange
+        double negativesBefore = negatives();
+
+        // Act
+        boolean available = userAvailabilityService.isUsernameAvailable("  Livre" + UUID.randomUUID() + " ");
+
+        // Assert
+        assertTrue(available);
+        assertEquals(negativesBefore + 1, negatives());
+    }
+
+    @Test
+    @DisplayName("Deve incluir no filtro o usuário criado depois da reconstrução, sem diferenciar maiúsculas")
+    void createdUserIsTakenWithoutRebuild() {
+        // Arrange
+        String username = "avail" + UUID.randomUUID().toString().substring(0, 8);
+        userService.create(UserDTO.builder()
+                .username(username)
+                .password("password123")
+                .fullName("Availability User")
+                .email(username + "@example.com")
+                .roles(Set.of("USER"))
+                .build());
+
+        // Act & Assert
+        assertFalse(userAvailabilityService.isUsernameAvailable(username.toUpperCase()));
+        assertFalse(userAvailabilityService.isEmailAvailable(" " + username + "@Example.com"));
+        assertTrue(userAvailabilityService.isEmailAvailable("other-" + username + "@example.com"));
+    }
+
+    private double negatives() {
+        return meterRegistry.get("availability.checks")
+                .tag("kind", "username")
+                .tag("result", "negative")
+                .counter()
+                .count();
+    }
+}
@@ -0,0 +1,79 @@
+package com.rgbnet.provider.service;
+
+import com.rgbnet.provider.dto.UserDTO;
+import com.rgbnet.provider.event.UserChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserDirectoryTest {
+
+    private UserDirectory userDirectory;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        userDirectory = new UserDirectory(new SimpleMeterRegistry(), true, true);
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Não deve responder consultas antes de alcançar o fim do tópico")
+    void emptyUntilReady() {
+        // Arrange
+        userDirectory.apply(event(0L, "alice", "alice@example.com"));
+
+        // Act & Assert
+        assertTrue(userDirectory.findById(userId).isEmpty());
+        userDirectory.markReady();
+        assertTrue(userDirectory.findById(userId).isPresent());
+    }
+
+    @Test
+    @DisplayName("Deve manter a versão mais recente e ignorar eventos atrasados ou repetidos")
+    void keepsNewestVersion() {
+        // Arrange
+        userDirectory.markReady();
+
+        // Act
+        userDirectory.apply(event(2L, "alice", "alice@new.example.com"));
+        userDirectory.apply(event(1L, "alice", "alice@example.com"));
+        userDirectory.apply(event(2L, "alice", "alice@example.com"));
+
+        // Assert
+        UserDTO user = userDirectory.findById(userId).orElseThrow();
+        assertEquals("alice@new.example.com", user.getEmail());
+        assertEquals(1, userDirectory.size());
+    }
+
+    @Test
+    @DisplayName("Deve mover os índices de username e e-mail quando eles mudam")
+    void reindexesChangedKeys() {
+        // Arrange
+        userDirectory.markReady();
+        userDirectory.apply(event(0L, "alice", "alice@example.com"));
+
+        // Act
+        userDirectory.apply(event(1L, "alice.smith", "alice.smith@example.com"));
+
+        // Assert
+        assertTrue(userDirectory.findByUsername("alice").isEmpty());
+        assertTrue(userDirectory.findByEmail("alice@example.com").isEmpty());
+        assertEquals(userId, userDirectory.findByUsername("alice.smith").orElseThrow().getId());
+        assertEquals(userId, userDirectory.findByEmail("alice.smith@example.com").orElseThrow().getId());
+    }
+
+    private UserChangedEvent event(long version, String username, String email) {
+        LocalDateTime now = LocalDateTime.now();
+        return new UserChangedEvent(UUID.randomUUID(), UserChangedEvent.Type.UPDATED, userId, version, Instant.now(),
+                username, "Alice", email, null, Set.of("USER"), true, now, now);
+    }
+}
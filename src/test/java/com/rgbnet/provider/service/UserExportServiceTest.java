@@ -0,0 +1,103 @@
+package com.rgbnet.provider.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.rgbnet.provider.dto.UserDTO;
+import com.rgbnet.provider.repository.UserQueryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserExportServiceTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Mock
+    private UserQueryRepository userQueryRepository;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    private UserExportService userExportService;
+
+    @BeforeEach
+    void setUp() {
+        userExportService = new UserExportService(userQueryRepository, objectMapper);
+        ReflectionTestUtils.setField(userExportService, "pageSize", 2);
+    }
+
+    @Test
+    @DisplayName("Deve exportar todas as páginas por keyset, uma linha por usuário")
+    void exportWalksKeysetPages() throws Exception {
+        // Arrange
+        UserDTO first = user("first");
+        UserDTO second = user("second");
+        UserDTO third = user("third");
+        when(userQueryRepository.findFirstPage(true, 2)).thenReturn(List.of(first, second));
+        when(userQueryRepository.findPageAfter(CREATED_AT, second.getId(), true, 2)).thenReturn(List.of(third));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        userExportService.export(true, output);
+
+        // Assert
+        List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(3, lines.size());
+        assertEquals(List.of("first", "second", "third"), lines.stream()
+                .map(this::readUsername)
+                .toList());
+        verify(userQueryRepository, times(1)).findPageAfter(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Não deve buscar a próxima página quando a primeira vem vazia")
+    void exportStopsOnEmptyPage() throws Exception {
+        // Arrange
+        when(userQueryRepository.findFirstPage(null, 2)).thenReturn(List.of());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        userExportService.export(null, output);
+
+        // Assert
+        assertEquals(0, output.size());
+        verify(userQueryRepository, never()).findPageAfter(any(), any(), any(), anyInt());
+    }
+
+    private String readUsername(String line) {
+        try {
+            return objectMapper.readValue(line, UserDTO.class).getUsername();
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static UserDTO user(String username) {
+        return UserDTO.builder()
+                .id(UUID.randomUUID())
+                .username(username)
+                .fullName("User " + username)
+                .email(username + "@example.com")
+                .roles(Set.of("USER"))
+                .createdAt(CREATED_AT)
+                .updatedAt(CREATED_AT)
+                .active(true)
+                .build();
+    }
+}
@@ -0,0 +1,67 @@
+package com.rgbnet.provider.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserImportReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Deve ler CSV com cabeçalho, campos entre aspas e papéis separados por barra")
+    void readCsv() throws Exception {
+        String csv = """
+                username,password,fullName,email,phone,roles
+                joao,secret123,"Silva, João",joao@example.com,11999999999,USER|SUPPORT
+
+                maria,secret123,Maria,maria@example.com,,
+                """;
+
+        try (UserImportReader reader = reader(csv, UserImportService.Format.CSV)) {
+            List<UserImportReader.Row> rows = reader.next(10);
+
+            assertEquals(2, rows.size());
+            assertEquals(2, rows.get(0).line());
+            assertEquals("Silva, João", rows.get(0).user().getFullName());
+            assertEquals(Set.of("USER", "SUPPORT"), rows.get(0).user().getRoles());
+            assertEquals(4, rows.get(1).line());
+            assertNull(rows.get(1).user().getPhone());
+            assertTrue(rows.get(1).user().getRoles().isEmpty());
+            assertTrue(reader.next(10).isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve ler NDJSON em lotes e reportar linhas mal formadas sem interromper a leitura")
+    void readNdjsonInChunks() throws Exception {
+        String ndjson = """
+                {"username":"joao","password":"secret123","fullName":"João","email":"joao@example.com"}
+                {"username":
+                {"username":"maria","password":"secret123","fullName":"Maria","email":"maria@example.com"}
+                """;
+
+        try (UserImportReader reader = reader(ndjson, UserImportService.Format.NDJSON)) {
+            List<UserImportReader.Row> first = reader.next(2);
+            List<UserImportReader.Row> second = reader.next(2);
+
+            assertEquals(2, first.size());
+            assertEquals("secret123", first.get(0).user().getPassword());
+            assertNotNull(first.get(1).error());
+            assertEquals(1, second.size());
+            assertEquals("maria", second.get(0).user().getUsername());
+        }
+    }
+
+    private UserImportReader reader(String content, UserImportService.Format format) {
+        return new UserImportReader(
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), format, objectMapper);
+    }
+}
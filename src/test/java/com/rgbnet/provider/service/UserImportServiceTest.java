@@ -0,0 +1,137 @@
+package com.rgbnet.provider.service;
+
+import com.rgbnet.provider.dto.UserDTO;
+import com.rgbnet.provider.dto.UserImportError;
+import com.rgbnet.provider.dto.UserImportReport;
+import com.rgbnet.provider.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+// Importação contra o H2: lotes de users.import.chunk-size, rejeição de quem já existe e regravação linha a
+// linha quando o lote esbarra numa restrição do banco
+@SpringBootTest(properties = {
+        "users.import.chunk-size=2",
+        "security.password.bcrypt-strength=4"
+})
+@ActiveProfiles("h2")
+class UserImportServiceTest {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @SpyBean
+    private UserBatchWriter userBatchWriter;
+
+    // Prefixo por teste: o contexto e o banco em memória são compartilhados entre os testes
+    private String prefix;
+
+    @BeforeEach
+    void setUp() {
+        prefix = "imp" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @Test
+    @DisplayName("Deve gravar o arquivo em lotes do tamanho configurado")
+    void importsInChunks() throws Exception {
+        // Act
+        UserImportReport report = importNdjson(line("a", null), line("b", null), line("c", null),
+                line("d", null), line("e", null));
+
+        // Assert
+        assertEquals(5, report.getTotal());
+        assertEquals(5, report.getImported());
+        assertEquals(0, report.getFailed());
+        verify(userBatchWriter, times(2)).insert(argThat(users -> users.size() == 2));
+        verify(userBatchWriter, times(1)).insert(argThat(users -> users.size() == 1));
+        assertTrue(userRepository.existsByUsername(prefix + "e"));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar usuários já cadastrados ignorando maiúsculas, como a checagem dentro do arquivo")
+    void rejectsExistingUsersCaseInsensitively() throws Exception {
+        // Arrange
+        userService.create(UserDTO.builder()
+                .username(prefix + "taken")
+                .password("password123")
+                .fullName("Existing User")
+                .email(prefix + "mail@example.com")
+                .roles(Set.of("USER"))
+                .build());
+        String takenUsername = (prefix + "TAKEN").toUpperCase();
+        String takenEmail = "{\"username\":\"" + prefix + "other\",\"password\":\"password123\","
+                + "\"fullName\":\"Other\",\"email\":\"" + (prefix + "MAIL@example.com").toUpperCase() + "\"}";
+
+        // Act
+        UserImportReport report = importNdjson(
+                "{\"username\":\"" + takenUsername + "\",\"password\":\"password123\",\"fullName\":\"Taken\","
+                        + "\"email\":\"" + prefix + "new@example.com\"}",
+                takenEmail,
+                line("fresh", null));
+
+        // Assert
+        assertEquals(1, report.getImported());
+        assertEquals(2, report.getFailed());
+        assertEquals(List.of("Nome de usuário já cadastrado", "E-mail já cadastrado"), messages(report));
+        assertFalse(userRepository.existsByUsername(takenUsername));
+    }
+
+    @Test
+    @DisplayName("Deve regravar linha a linha quando o lote viola uma restrição do banco")
+    void fallsBackToRowByRowOnConstraintViolation() throws Exception {
+        // Arrange: phone passa na validação do DTO, mas excede a coluna de 20 caracteres
+        String tooLongPhone = "1".repeat(25);
+
+        // Act
+        UserImportReport report = importNdjson(line("ok", null), line("bad", tooLongPhone));
+
+        // Assert
+        assertEquals(1, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals(2, report.getErrors().get(0).getLine());
+        assertEquals(prefix + "bad", report.getErrors().get(0).getUsername());
+        assertTrue(userRepository.existsByUsername(prefix + "ok"));
+        assertFalse(userRepository.existsByUsername(prefix + "bad"));
+        // O lote inteiro e depois cada linha isoladamente
+        verify(userBatchWriter, times(3)).insert(anyList());
+    }
+
+    private UserImportReport importNdjson(String... lines) throws Exception {
+        String content = Stream.of(lines).collect(Collectors.joining("\n"));
+        return userImportService.importUsers(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)),
+                UserImportService.Format.NDJSON);
+    }
+
+    private String line(String suffix, String phone) {
+        return "{\"username\":\"" + prefix + suffix + "\",\"password\":\"password123\",\"fullName\":\"Imported "
+                + suffix + "\",\"email\":\"" + prefix + suffix + "@example.com\""
+                + (phone != null ? ",\"phone\":\"" + phone + "\"" : "") + ",\"roles\":[\"USER\"]}";
+    }
+
+    private static List<String> messages(UserImportReport report) {
+        return report.getErrors().stream().map(UserImportError::getMessage).toList();
+    }
+}
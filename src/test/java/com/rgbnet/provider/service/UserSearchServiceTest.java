@@ -0,0 +1,137 @@
+package com.rgbnet.provider.service;
+
+import com.rgbnet.provider.dto.CursorPage;
+import com.rgbnet.provider.dto.UserDTO;
+import com.rgbnet.provider.dto.UserSearchHit;
+import com.rgbnet.provider.exception.BadRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "security.password.bcrypt-strength=4")
+@ActiveProfiles("h2")
+class UserSearchServiceTest {
+
+    @Autowired
+    private UserSearchService userSearchService;
+
+    @Autowired
+    private UserService userService;
+
+    private String suffix;
+
+    @BeforeEach
+    void setUp() {
+        userSearchService.rebuild();
+        suffix = UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @Test
+    @DisplayName("Deve encontrar por prefixo do nome, sem acento, o usuário criado depois da carga")
+    void prefixWithoutAccents() {
+        // Arrange
+        UserDTO created = create("joao" + suffix, "João Conceição " + suffix, null);
+
+        // Act
+        CursorPage<UserSearchHit> page = userSearchService.search("conce " + suffix.substring(0, 4), null, 10, null);
+
+        // Assert
+        assertEquals(1, page.getItems().size());
+        assertEquals(created.getId(), page.getItems().get(0).getId());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Deve tolerar erro de digitação e pontuar o termo exato acima do aproximado")
+    void fuzzyRankedBelowExact() {
+        // Arrange
+        create("exato" + suffix, "Marcelo " + suffix, null);
+        create("aprox" + suffix, "Marcela " + suffix, null);
+
+        // Act
+        CursorPage<UserSearchHit> page = userSearchService.search("marcelo " + suffix, null, 10, null);
+
+        // Assert
+        assertEquals(2, page.getItems().size());
+        assertEquals("exato" + suffix, page.getItems().get(0).getUsername());
+        assertTrue(page.getItems().get(0).getScore() > page.getItems().get(1).getScore());
+    }
+
+    @Test
+    @DisplayName("Deve paginar pelo cursor e buscar pelos dígitos do telefone")
+    void paginatesAndMatchesPhone() {
+        // Arrange
+        String phone = "(11) 98" + Math.abs(suffix.hashCode() % 1_000_000);
+        for (int i = 0; i < 3; i++) {
+            create("fone" + i + suffix, "Telefone " + i, phone);
+        }
+        String digits = phone.replaceAll("\\D", "");
+
+        // Act
+        CursorPage<UserSearchHit> first = userSearchService.search(digits + " fone", null, 2, null);
+        CursorPage<UserSearchHit> second = userSearchService.search(digits + " fone", first.getNextCursor(), 2, null);
+
+        // Assert
+        assertEquals(2, first.getItems().size());
+        assertEquals("2", first.getNextCursor());
+        assertTrue(second.getItems().stream().anyMatch(hit -> hit.getUsername().endsWith(suffix)));
+    }
+
+    @Test
+    @DisplayName("Deve refletir a desativação no filtro de ativos")
+    void deactivatedUserFilteredOut() {
+        // Arrange
+        UserDTO created = create("inativo" + suffix, "Inativo " + suffix, null);
+        userService.delete(created.getId());
+
+        // Act
+        CursorPage<UserSearchHit> active = userSearchService.search("inativo" + suffix, null, 10, true);
+        CursorPage<UserSearchHit> inactive = userSearchService.search("inativo" + suffix, null, 10, false);
+
+        // Assert
+        assertTrue(active.getItems().isEmpty());
+        assertEquals(created.getId(), inactive.getItems().get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Deve podar da trie os nós do termo antigo quando o usuário é renomeado")
+    void renamePrunesOldTerms() {
+        // Arrange
+        UserDTO created = create("poda" + suffix, "Antes" + suffix, null);
+        int nodes = userSearchService.trieNodes();
+
+        // Act
+        userService.patch(created.getId(), UserDTO.builder().fullName("Depois" + suffix).build(), null);
+        CursorPage<UserSearchHit> renamed = userSearchService.search("antes" + suffix.substring(0, 2), null, 10, null);
+        userService.patch(created.getId(), UserDTO.builder().fullName("Antes" + suffix).build(), null);
+
+        // Assert
+        assertTrue(renamed.getItems().isEmpty());
+        assertEquals(nodes, userSearchService.trieNodes());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar cursor inválido")
+    void invalidCursor() {
+        assertThrows(BadRequestException.class, () -> userSearchService.search("teste", "abc", 10, null));
+    }
+
+    private UserDTO create(String username, String fullName, String phone) {
+        return userService.create(UserDTO.builder()
+                .username(username)
+                .password("password123")
+                .fullName(fullName)
+                .email(username + "@example.com")
+                .phone(phone)
+                .roles(Set.of("USER"))
+                .build());
+    }
+}
@@ -0,0 +1,141 @@
+package com.rgbnet.provider.service;
+
+import com.rgbnet.provider.domain.User;
+import com.rgbnet.provider.dto.UserDTO;
+import com.rgbnet.provider.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "security.password.bcrypt-strength=4"
+})
+@ActiveProfiles("h2")
+class UserSecondLevelCacheTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private UUID id;
+    private String username;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        username = "cache" + UUID.randomUUID().toString().substring(0, 8);
+        id = userService.create(UserDTO.builder()
+                .username(username)
+                .password("password123")
+                .fullName("Cache User")
+                .email(username + "@example.com")
+                .roles(Set.of("USER"))
+                .build()).getId();
+    }
+
+    @Test
+    @DisplayName("Deve atender findById e findByUsername repetidos pelo cache, sem consultar o banco")
+    void repeatedLookupsHitCache() {
+        // Arrange
+        load();
+        findByUsername();
+        statistics.clear();
+
+        // Act
+        User byId = load();
+        User byUsername = findByUsername();
+
+        // Assert: contadores só de User, já que jobs agendados podem consultar outras tabelas em paralelo
+        assertEquals(id, byId.getId());
+        assertEquals(id, byUsername.getId());
+        assertEquals(0, statistics.getEntityStatistics(User.class.getName()).getLoadCount());
+        assertEquals(0, statistics.getCollectionStatistics(User.class.getName() + ".roles").getLoadCount());
+        assertEquals(2, statistics.getDomainDataRegionStatistics(User.CACHE_REGION).getHitCount());
+        assertEquals(1, statistics.getNaturalIdStatistics(User.class.getName()).getCacheHitCount());
+    }
+
+    @Test
+    @DisplayName("Deve refletir PUT, PATCH (inclusive papéis) e exclusão lógica na leitura seguinte")
+    void writesInvalidateCache() {
+        // Arrange
+        load();
+
+        // Act & Assert
+        userService.update(id, UserDTO.builder().fullName("Put").email(username + "@example.com").build());
+        assertEquals("Put", load().getFullName());
+
+        userService.patch(id, UserDTO.builder().fullName("Patch").roles(Set.of("USER", "SUPPORT")).build(), null);
+        User patched = load();
+        assertEquals("Patch", patched.getFullName());
+        assertEquals(Set.of("USER", "SUPPORT"), patched.getRoles());
+
+        userService.delete(id);
+        assertFalse(findByUsername().isActive());
+    }
+
+    @Test
+    @DisplayName("Deve remover do cache só o usuário alterado, mantendo as entradas dos outros")
+    void writesEvictOnlyChangedUser() {
+        // Arrange
+        UUID otherId = userService.create(UserDTO.builder()
+                .username("other" + username)
+                .password("password123")
+                .fullName("Other User")
+                .email("other" + username + "@example.com")
+                .roles(Set.of("USER"))
+                .build()).getId();
+        load();
+        load(otherId);
+
+        // Act
+        userService.patch(id, UserDTO.builder().fullName("Patch").roles(Set.of("USER", "SUPPORT")).build(), null);
+        userService.delete(id);
+
+        // Assert
+        assertFalse(entityManagerFactory.getCache().contains(User.class, id));
+        assertTrue(entityManagerFactory.getCache().contains(User.class, otherId));
+        statistics.clear();
+        assertEquals(otherId, load(otherId).getId());
+        assertEquals(0, statistics.getEntityStatistics(User.class.getName()).getLoadCount());
+        assertEquals(0, statistics.getCollectionStatistics(User.class.getName() + ".roles").getLoadCount());
+    }
+
+    private User findByUsername() {
+        return transactionTemplate.execute(status -> userRepository.findByUsername(username).orElseThrow());
+    }
+
+    private User load() {
+        return load(id);
+    }
+
+    // Os papéis são EAGER, mas a leitura acontece dentro da transação para o caso de virem do cache
+    private User load(UUID userId) {
+        return transactionTemplate.execute(status -> {
+            User user = userRepository.findById(userId).orElseThrow();
+            user.getRoles().size();
+            return user;
+        });
+    }
+}
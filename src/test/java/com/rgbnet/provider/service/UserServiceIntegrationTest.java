@@ -2,6 +2,7 @@ package com.rgbnet.provider.service;
 
 import com.rgbnet.provider.domain.User;
 import com.rgbnet.provider.dto.UserDTO;
+import com.rgbnet.provider.exception.PreconditionFailedException;
 import com.rgbnet.provider.exception.ResourceNotFoundException;
 import com.rgbnet.provider.repository.UserRepository;
 import org.junit.jupiter.api.AfterEach;
@@ -137,6 +138,43 @@ public class UserServiceIntegrationTest {
         assertEquals("Nome Atualizado", retrievedUser.getFullName());
     }
     
+    @Test
+    @DisplayName("Deve aplicar o PATCH em um UPDATE versionado e trocar só os papéis alterados")
+    void patchUserWithVersionAndRoles() {
+        // Arrange
+        UserDTO userDTO = createTestUser("patchuser", "patch@example.com");
+        
+        // Act
+        UserDTO patched = userService.patch(userDTO.getId(), UserDTO.builder()
+                .phone("11888888888")
+                .roles(Set.of("USER", "SUPPORT"))
+                .build(), userDTO.getVersion());
+        
+        // Assert
+        assertEquals(userDTO.getVersion() + 1, patched.getVersion());
+        assertEquals("11888888888", patched.getPhone());
+        assertEquals("Test User patchuser", patched.getFullName());
+        assertEquals(Set.of("USER", "SUPPORT"), patched.getRoles());
+        assertThrows(PreconditionFailedException.class, () -> userService.patch(userDTO.getId(),
+                UserDTO.builder().phone("11777777777").build(), userDTO.getVersion()));
+    }
+    
+    @Test
+    @DisplayName("Deve desativar o usuário em um UPDATE versionado")
+    void deleteUserWithVersion() {
+        // Arrange
+        UserDTO userDTO = createTestUser("deleteuser", "delete@example.com");
+        
+        // Act
+        userService.delete(userDTO.getId(), userDTO.getVersion());
+        
+        // Assert
+        UserDTO deleted = userService.findById(userDTO.getId());
+        assertFalse(deleted.isActive());
+        assertEquals(userDTO.getVersion() + 1, deleted.getVersion());
+        assertThrows(ResourceNotFoundException.class, () -> userService.delete(UUID.randomUUID()));
+    }
+    
     // Método auxiliar para criar usuários de teste
     private UserDTO createTestUser(String username, String email) {
         Set<String> roles = new HashSet<>();
@@ -1,8 +1,14 @@
 package com.rgbnet.provider.service;
 
 import com.rgbnet.provider.domain.User;
+import com.rgbnet.provider.domain.UserSnapshot;
 import com.rgbnet.provider.dto.UserDTO;
+import com.rgbnet.provider.event.UserChangedEvent;
+import com.rgbnet.provider.event.UserEventOutbox;
+import com.rgbnet.provider.exception.PreconditionFailedException;
 import com.rgbnet.provider.exception.ResourceNotFoundException;
+import com.rgbnet.provider.repository.UserCommandRepository;
+import com.rgbnet.provider.repository.UserQueryRepository;
 import com.rgbnet.provider.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -10,13 +16,18 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,9 +36,24 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserQueryRepository userQueryRepository;
+
+    @Mock
+    private UserCommandRepository userCommandRepository;
+
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private UserEventOutbox userEventOutbox;
+
+    @Mock
+    private UserDirectory userDirectory;
+
+    @Spy
+    private UserDetailsCache userDetailsCache = new UserDetailsCache(100, Duration.ofMinutes(5));
+
     @InjectMocks
     private UserService userService;
 
@@ -79,17 +105,61 @@ class UserServiceTest {
     void loadUserByUsernameSuccess() {
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
         
-        User result = (User) userService.loadUserByUsername("testuser");
+        UserDetails result = userService.loadUserByUsername("testuser");
         
         assertNotNull(result);
+        assertInstanceOf(UserSnapshot.class, result);
         assertEquals("testuser", result.getUsername());
         verify(userRepository, times(1)).findByUsername("testuser");
     }
 
+    @Test
+    @DisplayName("Deve servir do cache as consultas repetidas pelo mesmo nome de usuário")
+    void loadUserByUsernameUsesCache() {
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        
+        UserDetails first = userService.loadUserByUsername("testuser");
+        UserDetails second = userService.loadUserByUsername("testuser");
+        
+        assertSame(first, second);
+        verify(userRepository, times(1)).findByUsername("testuser");
+    }
+
+    @Test
+    @DisplayName("Deve invalidar o cache do usuário ao atualizá-lo")
+    void updateInvalidatesCachedUser() {
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.save(any(User.class))).thenReturn(user);
+        userService.loadUserByUsername("testuser");
+        
+        userService.update(userId, userDTO);
+        userService.loadUserByUsername("testuser");
+        
+        verify(userDetailsCache, times(1)).invalidate("testuser");
+        verify(userRepository, times(2)).findByUsername("testuser");
+    }
+
+    @Test
+    @DisplayName("Deve regravar o hash da senha após login com algoritmo ou custo desatualizado")
+    void updatePasswordRehashesOnLogin() {
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(userRepository.save(user)).thenReturn(user);
+        
+        UserDetails result = userService.updatePassword(UserSnapshot.from(user), "{bcrypt}new_hash");
+        
+        assertEquals("{bcrypt}new_hash", result.getPassword());
+        verify(userRepository, times(1)).save(user);
+        verify(userDetailsCache, times(1)).invalidate("testuser");
+        verify(userRepository, times(1)).flush();
+        verify(userEventOutbox, times(1)).append(argThat(event ->
+                event.type() == UserChangedEvent.Type.UPDATED && userId.equals(event.userId())));
+    }
+
     @Test
     @DisplayName("Deve buscar todos os usuários")
     void findAllSuccess() {
-        when(userRepository.findAll()).thenReturn(Collections.singletonList(user));
+        when(userQueryRepository.findAll()).thenReturn(Collections.singletonList(userDTO));
         
         List<UserDTO> result = userService.findAll();
         
@@ -102,7 +172,7 @@ class UserServiceTest {
     @Test
     @DisplayName("Deve buscar um usuário pelo ID com sucesso")
     void findByIdSuccess() {
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userQueryRepository.findById(userId)).thenReturn(Optional.of(userDTO));
         
         UserDTO result = userService.findById(userId);
         
@@ -111,10 +181,32 @@ class UserServiceTest {
         assertEquals("testuser", result.getUsername());
     }
 
+    @Test
+    @DisplayName("Deve atender a busca por ID pelo diretório em memória sem consultar o banco")
+    void findByIdFromDirectory() {
+        when(userDirectory.findById(userId)).thenReturn(Optional.of(userDTO));
+
+        UserDTO result = userService.findById(userId);
+
+        assertEquals(userId, result.getId());
+        verifyNoInteractions(userQueryRepository, userRepository);
+    }
+
+    @Test
+    @DisplayName("Deve buscar por username e e-mail pela projeção quando o diretório não tem o usuário")
+    void findByUsernameAndEmailFallBackToProjection() {
+        when(userQueryRepository.findByUsername("testuser")).thenReturn(Optional.of(userDTO));
+        when(userQueryRepository.findByEmail("test@example.com")).thenReturn(Optional.of(userDTO));
+
+        assertEquals(userId, userService.findByUsername("testuser").getId());
+        assertEquals(userId, userService.findByEmail("test@example.com").getId());
+        verifyNoInteractions(userRepository);
+    }
+
     @Test
     @DisplayName("Deve lançar exceção ao buscar usuário por ID inexistente")
     void findByIdNotFound() {
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userQueryRepository.findById(userId)).thenReturn(Optional.empty());
         
         assertThrows(ResourceNotFoundException.class, () -> {
             userService.findById(userId);
@@ -132,7 +224,10 @@ class UserServiceTest {
         assertNotNull(result);
         assertEquals("testuser", result.getUsername());
         verify(passwordEncoder, times(1)).encode(userDTO.getPassword());
-        verify(userRepository, times(1)).save(any(User.class));
+        verify(userRepository, times(1)).save(argThat(saved -> saved.isEnabled() && saved.isAccountNonLocked()
+                && saved.isAccountNonExpired() && saved.isCredentialsNonExpired()));
+        verify(userEventOutbox, times(1)).append(argThat(event ->
+                event.type() == UserChangedEvent.Type.CREATED && userId.equals(event.userId())));
     }
 
     @Test
@@ -150,13 +245,78 @@ class UserServiceTest {
     }
 
     @Test
-    @DisplayName("Deve marcar um usuário como inativo ao deletar")
+    @DisplayName("Deve marcar um usuário como inativo ao deletar, em um único UPDATE sem carregar a entidade")
     void deleteSuccess() {
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        userDTO.setActive(false);
+        userDTO.setVersion(1L);
+        when(userCommandRepository.deactivate(eq(userId), isNull(), any())).thenReturn(1);
+        when(userQueryRepository.findById(userId)).thenReturn(Optional.of(userDTO));
         
         userService.delete(userId);
         
-        verify(userRepository, times(1)).findById(userId);
-        verify(userRepository, times(1)).save(user);
+        verify(userRepository, never()).findById(userId);
+        verify(userRepository, never()).save(any(User.class));
+        verify(userDetailsCache, times(1)).invalidate("testuser");
+        verify(userEventOutbox, times(1)).append(argThat(event ->
+                event.type() == UserChangedEvent.Type.DELETED && !event.active() && event.version() == 1L));
+    }
+
+    @Test
+    @DisplayName("Deve responder 412 quando o UPDATE não altera linha de um usuário existente")
+    void deleteRejectsStaleVersion() {
+        when(userCommandRepository.deactivate(eq(userId), eq(2L), any())).thenReturn(0);
+        when(userQueryRepository.findVersion(userId)).thenReturn(Optional.of(3L));
+        
+        assertThrows(PreconditionFailedException.class, () -> userService.delete(userId, 2L));
+        
+        verifyNoInteractions(userEventOutbox);
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção ao deletar usuário inexistente")
+    void deleteNotFound() {
+        when(userCommandRepository.deactivate(eq(userId), isNull(), any())).thenReturn(0);
+        when(userQueryRepository.findVersion(userId)).thenReturn(Optional.empty());
+        
+        assertThrows(ResourceNotFoundException.class, () -> userService.delete(userId));
+    }
+
+    @Test
+    @DisplayName("Deve enviar no PATCH apenas os campos informados e aplicar os papéis por diferença")
+    void patchChangesOnlyGivenFields() {
+        userDTO.setFullName("Patched Name");
+        when(userCommandRepository.patch(eq(userId), eq(4L), eq("Patched Name"), isNull(), isNull(), isNull(),
+                any())).thenReturn(1);
+        when(userQueryRepository.findById(userId)).thenReturn(Optional.of(userDTO));
+        
+        UserDTO result = userService.patch(userId,
+                UserDTO.builder().fullName("Patched Name").roles(Set.of("SUPPORT")).build(), 4L);
+        
+        assertEquals("Patched Name", result.getFullName());
+        verify(userCommandRepository, times(1)).replaceRoles(userId, Set.of("SUPPORT"));
+        verifyNoInteractions(passwordEncoder);
+        verify(userEventOutbox, times(1)).append(argThat(event ->
+                event.type() == UserChangedEvent.Type.UPDATED && "Patched Name".equals(event.fullName())));
+    }
+
+    @Test
+    @DisplayName("Deve recusar a atualização quando a versão do If-Match não é a atual")
+    void updateRejectsStaleVersion() {
+        user.setVersion(5L);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        
+        assertThrows(PreconditionFailedException.class, () -> userService.update(userId, userDTO, 4L));
+        
+        verify(userRepository, never()).save(any(User.class));
+        verifyNoInteractions(userEventOutbox);
+    }
+
+    @Test
+    @DisplayName("Deve servir a versão pelo diretório em memória sem consultar o banco")
+    void findVersionFromDirectory() {
+        when(userDirectory.findVersion(userId)).thenReturn(Optional.of(7L));
+        
+        assertEquals(7L, userService.findVersion(userId));
+        verifyNoInteractions(userQueryRepository, userRepository);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,33 @@
+package com.rgbnet.provider.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("Não deve ter falsos negativos e deve respeitar a taxa de falsos positivos dimensionada")
+    void respectsFalsePositiveRate() {
+        // Arrange
+        BloomFilter bloomFilter = BloomFilter.create(50_000, 0.01);
+        for (int i = 0; i < 50_000; i++) {
+            bloomFilter.add("member-" + i);
+        }
+
+        // Act
+        int falsePositives = 0;
+        for (int i = 0; i < 50_000; i++) {
+            assertTrue(bloomFilter.mightContain("member-" + i));
+            if (bloomFilter.mightContain("absent-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        // Assert
+        assertTrue(falsePositives / 50_000.0 < 0.02, "Taxa observada: " + falsePositives / 50_000.0);
+        assertEquals(0.01, bloomFilter.expectedFalsePositiveRate(), 0.005);
+        assertEquals(50_000, bloomFilter.insertions());
+    }
+}
@@ -0,0 +1,78 @@
+package com.rgbnet.provider.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7Test {
+
+    @Test
+    @DisplayName("Deve gerar UUID com versão 7, variante RFC e timestamp atual")
+    void generateSetsVersionVariantAndTimestamp() {
+        // Arrange: outros testes na mesma JVM podem ter levado o gerador alguns ms à frente do relógio; o id
+        // seguinte fica no relógio ou logo depois do anterior
+        long before = System.currentTimeMillis();
+        long previous = UuidV7.generate().getMostSignificantBits() >>> 16;
+
+        // Act
+        UUID uuid = UuidV7.generate();
+
+        // Assert
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        long timestamp = uuid.getMostSignificantBits() >>> 16;
+        assertTrue(timestamp >= before && timestamp >= previous);
+        assertTrue(timestamp <= Math.max(System.currentTimeMillis(), previous) + 1);
+    }
+
+    @Test
+    @DisplayName("Deve gerar ids estritamente crescentes dentro do mesmo milissegundo")
+    void generateIsMonotonic() {
+        // Arrange
+        UUID previous = UuidV7.generate();
+
+        // Act & Assert
+        for (int i = 0; i < 100_000; i++) {
+            UUID next = UuidV7.generate();
+            assertTrue(Long.compareUnsigned(next.getMostSignificantBits(), previous.getMostSignificantBits()) > 0);
+            previous = next;
+        }
+    }
+
+    @Test
+    @DisplayName("Não deve repetir ids gerados em paralelo")
+    void generateIsUniqueAcrossThreads() throws Exception {
+        // Arrange
+        int threads = 8;
+        int perThread = 50_000;
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Act
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(UuidV7.generate());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        // Assert
+        assertEquals(threads * perThread, ids.size());
+    }
+}